@@ -0,0 +1,38 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single call to {@link ArcLengthSolver#solve(QBezierCurve)}
+ * for every solver and every shape in the corpus
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArcLengthSolverBenchmark {
+
+    @Param
+    private SolverType solverType;
+
+    @Param
+    private CurveShape shape;
+
+    private ArcLengthSolver solver;
+    private QBezierCurve curve;
+
+    @Setup
+    public void setup(){
+        solver = solverType.create();
+        curve = shape.create();
+    }
+
+    @Benchmark
+    public double solve(){
+        return solver.solve(curve);
+    }
+}
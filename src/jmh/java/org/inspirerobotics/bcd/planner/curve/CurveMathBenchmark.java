@@ -0,0 +1,56 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import javafx.geometry.Point2D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of evaluating a curve at a single time
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveMathBenchmark {
+
+    @Param
+    private CurveShape shape;
+
+    private final double[] out = new double[2];
+    private double time = .37;
+    private QBezierCurve curve;
+
+    @Setup
+    public void setup(){
+        curve = shape.create();
+    }
+
+    @Benchmark
+    public Point2D allocatingPosition(){
+        return ArcLengthSolver.calc(curve, time);
+    }
+
+    @Benchmark
+    public double[] position(){
+        CurveMath.position(curve, time, out);
+        return out;
+    }
+
+    @Benchmark
+    public double speed(){
+        return CurveMath.speed(curve, time);
+    }
+
+    @Benchmark
+    public double angle(){
+        return CurveMath.angle(curve, time);
+    }
+
+    @Benchmark
+    public double curvature(){
+        return CurveMath.curvature(curve, time);
+    }
+}
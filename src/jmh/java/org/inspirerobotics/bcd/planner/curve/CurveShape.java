@@ -0,0 +1,37 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import javafx.geometry.Point2D;
+
+/**
+ * The corpus of curves used by the benchmarks. Each shape stresses a different
+ * part of the solvers (ex: the closed form of the {@link IntegrationSolver} breaks down when A is 0)
+ */
+public enum CurveShape {
+
+    /**
+     * Evenly spaced points on a line, A = 0
+     */
+    STRAIGHT(0, 0, 5, 0, 10, 0),
+    GENTLE(0, 0, 5, 2, 10, 0),
+    HAIRPIN(0, 0, 10, 1, 0, 2),
+
+    /**
+     * A curve that is almost a straight line, A is nearly 0
+     */
+    DEGENERATE(0, 0, 5, 1e-7, 10, 0);
+
+    private final double[] points;
+
+    CurveShape(double... points) {
+        this.points = points;
+    }
+
+    public QBezierCurve create(){
+        QBezierCurve curve = new QBezierCurve(name());
+        curve.setStart(new Point2D(points[0], points[1]));
+        curve.setControlPoint(new Point2D(points[2], points[3]));
+        curve.setEnd(new Point2D(points[4], points[5]));
+
+        return curve;
+    }
+}
@@ -0,0 +1,88 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of finding the time on a curve at a distance, which is
+ * what the {@link Simulation} does every frame
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceLookupBenchmark {
+
+    @Param
+    private CurveShape shape;
+
+    private final InverseArcLengthSolver inverseSolver = new InverseArcLengthSolver();
+    private QBezierCurve curve;
+    private ArcLengthTable table;
+    private ArcLengthCursor cursor;
+    private double distance;
+
+    @Setup
+    public void setup(){
+        curve = shape.create();
+        table = new ArcLengthTable(curve);
+        distance = table.getLength() * .63;
+        cursor = new ArcLengthCursor(curve.getSegment());
+    }
+
+    @Benchmark
+    public double tableLookup(){
+        return table.timeAtDistance(distance);
+    }
+
+    /**
+     * One simulation step of a thousandth of the curve, starting again at the end of the curve
+     */
+    @Benchmark
+    public double cursorAdvance(){
+        if(cursor.isAtEnd()){
+            cursor.reset(curve.getSegment());
+        }
+
+        cursor.advance(cursor.getLength() / 1000);
+        return cursor.getTime();
+    }
+
+    @Benchmark
+    public ArcLengthTable tableBuild(){
+        return new ArcLengthTable(curve);
+    }
+
+    @Benchmark
+    public double newtonInverse(){
+        return inverseSolver.parameterAtLength(curve, distance);
+    }
+
+    /**
+     * The lookup the simulation used before the {@link ArcLengthTable}, kept as a baseline
+     */
+    @Benchmark
+    public double linearScan(){
+        double prevX = CurveMath.position(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), 0);
+        double prevY = CurveMath.position(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), 0);
+        double currDistance = 0;
+
+        for(double t = 0; t < 1; t += .001){
+            double currX = CurveMath.position(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), t);
+            double currY = CurveMath.position(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), t);
+
+            currDistance += Math.hypot(currX - prevX, currY - prevY);
+
+            if(currDistance >= distance)
+                return t;
+
+            prevX = currX;
+            prevY = currY;
+        }
+
+        return 1;
+    }
+}
@@ -0,0 +1,28 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import java.util.function.Supplier;
+
+/**
+ * Every {@link ArcLengthSolver} that is benchmarked
+ */
+public enum SolverType {
+
+    BRUTE_FORCE_COARSE(() -> new BruteForceArcSolver(.01)),
+    BRUTE_FORCE_FINE(() -> new BruteForceArcSolver(.0001)),
+    CONTROL_POLYGON(ControlPolygonSolver::new),
+    INTEGRATION(IntegrationSolver::new),
+    GAUSS_LEGENDRE(() -> new GaussLegendreSolver(8)),
+    ADAPTIVE(() -> new AdaptiveSubdivisionSolver(.0001)),
+    AUTOMATIC(() -> new AutoArcLengthSolver(.0001)),
+    CACHED_BRUTE_FORCE_FINE(() -> new CachingArcLengthSolver(new BruteForceArcSolver(.0001), 1024));
+
+    private final Supplier<ArcLengthSolver> factory;
+
+    SolverType(Supplier<ArcLengthSolver> factory) {
+        this.factory = factory;
+    }
+
+    public ArcLengthSolver create(){
+        return factory.get();
+    }
+}
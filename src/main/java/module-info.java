@@ -1,4 +1,5 @@
 module org.inspirerobotics.bcd.planner {
+    requires java.compiler;
     requires java.desktop;
     requires javafx.controls;
     requires com.google.gson;
@@ -0,0 +1,243 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import javafx.geometry.Point2D;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+/**
+ * Compares the accuracy and the cost of different Arc Length Solvers over a corpus of curves.
+ * The error of each solver is measured against the {@link ReferenceSolver}, and the cost is the
+ * average time per call. A solver is on the Pareto front when no other solver is both cheaper
+ * and more accurate, which makes it a good choice for some tolerance.
+ *<p></p>
+ * This class is designed to be run on a separate thread (apart from the UI thread).
+ */
+public class AccuracyReport {
+
+    private static final int WARMUP_PASSES = 50;
+    private static final int TIMED_PASSES = 50;
+
+    /**
+     * The size of the field in feet, used when generating random curves
+     */
+    private static final double FIELD_WIDTH = 54;
+    private static final double FIELD_HEIGHT = 27;
+
+    /**
+     * The solver results are stored here so the JIT can not remove the timed loops
+     */
+    private static volatile double sink;
+
+    private final List<Row> rows;
+    private final int corpusSize;
+
+    private AccuracyReport(List<Row> rows, int corpusSize) {
+        this.rows = rows;
+        this.corpusSize = corpusSize;
+    }
+
+    public static AccuracyReport create(List<QBezierCurve> corpus, List<ArcLengthSolver> solvers){
+        return create(corpus, solvers, done -> {});
+    }
+
+    /**
+     * @param onSolverDone called with the number of solvers measured so far, after each solver
+     */
+    public static AccuracyReport create(List<QBezierCurve> corpus, List<ArcLengthSolver> solvers,
+                                        IntConsumer onSolverDone){
+        double[] reference = new double[corpus.size()];
+        ReferenceSolver referenceSolver = new ReferenceSolver();
+
+        for(int i = 0; i < reference.length; i++){
+            reference[i] = referenceSolver.solve(corpus.get(i));
+        }
+
+        List<Row> rows = new ArrayList<>();
+        for(ArcLengthSolver solver : solvers){
+            rows.add(createRow(solver, corpus, reference));
+            onSolverDone.accept(rows.size());
+        }
+
+        markParetoFront(rows);
+        rows.sort(Comparator.comparingDouble(row -> row.cost));
+
+        return new AccuracyReport(Collections.unmodifiableList(rows), corpus.size());
+    }
+
+    private static Row createRow(ArcLengthSolver solver, List<QBezierCurve> corpus, double[] reference) {
+        double[] absoluteErrors = new double[corpus.size()];
+        double[] relativeErrors = new double[corpus.size()];
+        int valid = 0;
+
+        for(int i = 0; i < corpus.size(); i++){
+            double error = Math.abs(solver.solve(corpus.get(i)) - reference[i]);
+
+            if(!Double.isFinite(error))
+                continue;
+
+            absoluteErrors[valid] = error;
+            relativeErrors[valid] = reference[i] == 0 ? error : error / reference[i];
+            valid++;
+        }
+
+        absoluteErrors = Arrays.copyOf(absoluteErrors, valid);
+        relativeErrors = Arrays.copyOf(relativeErrors, valid);
+        Arrays.sort(absoluteErrors);
+        Arrays.sort(relativeErrors);
+
+        return new Row(solver.getName(), calcCost(solver, corpus), corpus.size() - valid,
+                mean(absoluteErrors), max(absoluteErrors),
+                mean(relativeErrors), percentile(relativeErrors, .99), max(relativeErrors));
+    }
+
+    /**
+     * @return the average time (in nanoseconds) the solver takes to solve a curve in the corpus
+     */
+    private static double calcCost(ArcLengthSolver solver, List<QBezierCurve> corpus){
+        double result = 0;
+
+        for(int pass = 0; pass < WARMUP_PASSES; pass++){
+            for(QBezierCurve curve : corpus){
+                result += solver.solve(curve);
+            }
+        }
+
+        long start = System.nanoTime();
+        for(int pass = 0; pass < TIMED_PASSES; pass++){
+            for(QBezierCurve curve : corpus){
+                result += solver.solve(curve);
+            }
+        }
+        long time = System.nanoTime() - start;
+
+        sink = result;
+
+        return (double) time / (TIMED_PASSES * corpus.size());
+    }
+
+    private static void markParetoFront(List<Row> rows){
+        for(Row row : rows){
+            row.paretoOptimal = row.failures == 0 && rows.stream()
+                    .filter(other -> other != row && other.failures == 0)
+                    .noneMatch(other -> other.cost <= row.cost && other.maxRelativeError < row.maxRelativeError
+                            || other.cost < row.cost && other.maxRelativeError <= row.maxRelativeError);
+        }
+    }
+
+    private static double mean(double[] values){
+        return values.length == 0 ? Double.NaN : Arrays.stream(values).sum() / values.length;
+    }
+
+    private static double max(double[] sortedValues){
+        return sortedValues.length == 0 ? Double.NaN : sortedValues[sortedValues.length - 1];
+    }
+
+    private static double percentile(double[] sortedValues, double percentile){
+        if(sortedValues.length == 0)
+            return Double.NaN;
+
+        int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, Math.min(sortedValues.length - 1, index))];
+    }
+
+    /**
+     * Creates a corpus of random curves on the field, along with the shapes that are known to be
+     * hard for some solvers (straight lines, hairpins and curves that fold back on themselves)
+     */
+    public static List<QBezierCurve> generateCorpus(int randomCount, long seed){
+        Random random = new Random(seed);
+        List<QBezierCurve> corpus = new ArrayList<>();
+
+        corpus.add(createCurve("Straight", 0, 0, 5, 0, 10, 0));
+        corpus.add(createCurve("Nearly Straight", 0, 0, 5, 1e-7, 10, 0));
+        corpus.add(createCurve("Hairpin", 0, 0, 10, 1, 0, 2));
+        corpus.add(createCurve("Folded", 0, 0, 10, 10, 5, 5));
+        corpus.add(createCurve("Gentle", 0, 0, 5, 2, 10, 0));
+
+        for(int i = 0; i < randomCount; i++){
+            corpus.add(createCurve("Random" + i,
+                    random.nextDouble() * FIELD_WIDTH, random.nextDouble() * FIELD_HEIGHT,
+                    random.nextDouble() * FIELD_WIDTH, random.nextDouble() * FIELD_HEIGHT,
+                    random.nextDouble() * FIELD_WIDTH, random.nextDouble() * FIELD_HEIGHT));
+        }
+
+        return corpus;
+    }
+
+    private static QBezierCurve createCurve(String name, double p0x, double p0y, double p1x, double p1y,
+                                            double p2x, double p2y){
+        QBezierCurve curve = new QBezierCurve(name);
+        curve.setStart(new Point2D(p0x, p0y));
+        curve.setControlPoint(new Point2D(p1x, p1y));
+        curve.setEnd(new Point2D(p2x, p2y));
+
+        return curve;
+    }
+
+    public String toCSV(){
+        StringBuilder builder = new StringBuilder();
+        builder.append("solver,cost_ns,failures,mean_abs_error,max_abs_error,")
+                .append("mean_rel_error,p99_rel_error,max_rel_error,pareto\n");
+
+        for(Row row : rows){
+            builder.append('"').append(row.name.replace("\"", "\"\"")).append('"').append(',')
+                    .append(row.cost).append(',')
+                    .append(row.failures).append(',')
+                    .append(row.meanAbsoluteError).append(',')
+                    .append(row.maxAbsoluteError).append(',')
+                    .append(row.meanRelativeError).append(',')
+                    .append(row.p99RelativeError).append(',')
+                    .append(row.maxRelativeError).append(',')
+                    .append(row.paretoOptimal).append('\n');
+        }
+
+        return builder.toString();
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public int getCorpusSize() {
+        return corpusSize;
+    }
+
+    /**
+     * The accuracy and cost of a single solver. Solvers that returned NaN or infinity are counted
+     * as failures, and those curves are left out of the error statistics
+     */
+    public static class Row{
+        public final String name;
+        public final double cost;
+        public final int failures;
+        public final double meanAbsoluteError;
+        public final double maxAbsoluteError;
+        public final double meanRelativeError;
+        public final double p99RelativeError;
+        public final double maxRelativeError;
+
+        private boolean paretoOptimal;
+
+        Row(String name, double cost, int failures, double meanAbsoluteError, double maxAbsoluteError,
+            double meanRelativeError, double p99RelativeError, double maxRelativeError) {
+            this.name = name;
+            this.cost = cost;
+            this.failures = failures;
+            this.meanAbsoluteError = meanAbsoluteError;
+            this.maxAbsoluteError = maxAbsoluteError;
+            this.meanRelativeError = meanRelativeError;
+            this.p99RelativeError = p99RelativeError;
+            this.maxRelativeError = maxRelativeError;
+        }
+
+        public boolean isParetoOptimal() {
+            return paretoOptimal;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+/**
+ * An Arc Length Solver that splits the curve in half (de Casteljau subdivision) until
+ * the length of the control polygon and the length of the chord agree within a tolerance.
+ * Each piece is then estimated with the Control Polygon formula. Flat curves finish after
+ * very few splits, while tight curves are split more where they bend.
+ *<p></p>
+ * Source: <a href="https://raphlinus.github.io/curves/2018/12/28/bezier-arclength.html#the-control-polygon-length-approach">
+ *     Raph Levien's Blog Post</a>
+ */
+public class AdaptiveSubdivisionSolver implements ArcLengthSolver {
+
+    /**
+     * Limits how deep the curve is split, so a very small tolerance solves at most 2<sup>18</sup> pieces
+     */
+    private static final int MAX_DEPTH = 18;
+
+    private final double tolerance;
+
+    public AdaptiveSubdivisionSolver(double tolerance) {
+        if(!(tolerance > 0))
+            throw new IllegalArgumentException("Tolerance must be positive: " + tolerance);
+
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public double solve(QBezierCurve curve) {
+        return solve(curve, tolerance);
+    }
+
+    @Override
+    public double solve(QBezierCurve curve, double tolerance) {
+        return solve(curve.getSegment(), tolerance);
+    }
+
+    @Override
+    public double solve(BezierSegment segment) {
+        return solve(segment, tolerance);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the tolerance is not positive or a point is not finite (NaN or infinite),
+     * since those curves would never meet the tolerance
+     */
+    public double solve(BezierSegment segment, double tolerance) {
+        if(!(tolerance > 0))
+            throw new IllegalArgumentException("Tolerance must be positive: " + tolerance);
+
+        double p0x = segment.getP0x();
+        double p0y = segment.getP0y();
+        double p1x = segment.getP1x();
+        double p1y = segment.getP1y();
+        double p2x = segment.getP2x();
+        double p2y = segment.getP2y();
+
+        if(!Double.isFinite(p0x) || !Double.isFinite(p0y) || !Double.isFinite(p1x) ||
+                !Double.isFinite(p1y) || !Double.isFinite(p2x) || !Double.isFinite(p2y))
+            throw new IllegalArgumentException("The points of the curve must be finite");
+
+        return solve(p0x, p0y, p1x, p1y, p2x, p2y, tolerance, 0);
+    }
+
+    private double solve(double p0x, double p0y, double p1x, double p1y, double p2x, double p2y,
+                         double tolerance, int depth){
+        double chord = Math.hypot(p2x - p0x, p2y - p0y);
+        double polygon = Math.hypot(p1x - p0x, p1y - p0y) + Math.hypot(p2x - p1x, p2y - p1y);
+
+        if(polygon - chord <= tolerance || depth >= MAX_DEPTH){
+            return ((2 * chord) + polygon) / 3;
+        }
+
+        double leftX = (p0x + p1x) / 2;
+        double leftY = (p0y + p1y) / 2;
+        double rightX = (p1x + p2x) / 2;
+        double rightY = (p1y + p2y) / 2;
+        double midX = (leftX + rightX) / 2;
+        double midY = (leftY + rightY) / 2;
+
+        return solve(p0x, p0y, leftX, leftY, midX, midY, tolerance / 2, depth + 1) +
+                solve(midX, midY, rightX, rightY, p2x, p2y, tolerance / 2, depth + 1);
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    @Override
+    public String getName() {
+        return "Adaptive Subdivision (tol=" + tolerance + ")";
+    }
+}
@@ -0,0 +1,131 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+/**
+ * Tracks a position on a curve that only moves forward, like the robot in the simulation. The cursor
+ * remembers its time (t) and the distance travelled so far, so moving it only has to integrate the
+ * small step from the last time instead of starting again from t = 0. Each step uses 5-point
+ * Gauss-Legendre quadrature, corrected with Newton's method, so moving the cursor takes the same time
+ * no matter how long the curve is.
+ *<p></p>
+ * When the cursor passes the end of the curve, {@link #advance(double)} returns the distance left over,
+ * so it can be carried onto the next curve.
+ */
+public class ArcLengthCursor {
+
+    private static final GaussLegendreSolver quadrature = new GaussLegendreSolver(5);
+    private static final int MAX_ITERATIONS = 20;
+    private static final double EPSILON = 1e-12;
+
+    private BezierSegment segment;
+    private double length;
+    private double slowestTime;
+
+    private double time;
+    private double distance;
+
+    public ArcLengthCursor(BezierSegment segment) {
+        reset(segment);
+    }
+
+    /**
+     * Moves the cursor to the start of the passed segment
+     */
+    public void reset(BezierSegment segment){
+        this.segment = segment;
+        this.length = segment.getLength();
+        this.slowestTime = segment.getA() > 0 ? -segment.getB() / (2 * segment.getA()) : Double.NaN;
+        this.time = 0;
+        this.distance = 0;
+    }
+
+    /**
+     * Moves the cursor forward along the curve. Distances that are not positive are ignored
+     *
+     * @return the distance past the end of the curve, or 0 if the cursor is still on the curve
+     */
+    public double advance(double delta){
+        if(!(delta > 0))
+            return 0;
+
+        if(distance + delta >= length){
+            double leftover = distance + delta - length;
+
+            time = 1;
+            distance = length;
+            return leftover;
+        }
+
+        time = solveStep(delta);
+        distance += delta;
+        return 0;
+    }
+
+    /**
+     * Finds the time where the length from the current time equals the step. The answer is kept in a
+     * bracket, and the solver bisects when a Newton step leaves the bracket or the curve has no speed
+     */
+    private double solveStep(double step){
+        double tolerance = EPSILON * Math.max(1, length);
+        double low = time;
+        double high = 1;
+        double speed = segment.getSpeed(time);
+        double t = speed > 0 ? Math.min(1, time + step / speed) : (low + high) / 2;
+
+        for(int i = 0; i < MAX_ITERATIONS; i++){
+            double error = lengthBetween(time, t) - step;
+
+            if(Math.abs(error) <= tolerance)
+                break;
+
+            if(error > 0){
+                high = t;
+            }else{
+                low = t;
+            }
+
+            speed = segment.getSpeed(t);
+            double next = speed > 0 ? t - (error / speed) : Double.NaN;
+            t = next > low && next < high ? next : (low + high) / 2;
+        }
+
+        return t;
+    }
+
+    /**
+     * The speed has a kink where it is at its minimum, so the integration is split there to keep both halves smooth
+     */
+    private double lengthBetween(double startTime, double endTime){
+        if(slowestTime > startTime && slowestTime < endTime){
+            return quadrature.lengthBetween(segment, startTime, slowestTime) +
+                    quadrature.lengthBetween(segment, slowestTime, endTime);
+        }
+
+        return quadrature.lengthBetween(segment, startTime, endTime);
+    }
+
+    /**
+     * @return true if the cursor has reached the end of the curve
+     */
+    public boolean isAtEnd(){
+        return distance >= length;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * @return the distance from the start of the curve to the cursor
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getLength() {
+        return length;
+    }
+
+    public BezierSegment getSegment() {
+        return segment;
+    }
+}
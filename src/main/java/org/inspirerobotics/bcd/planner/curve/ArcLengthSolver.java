@@ -2,6 +2,8 @@ package org.inspirerobotics.bcd.planner.curve;
 
 import javafx.geometry.Point2D;
 
+import java.util.Arrays;
+
 /**
  * Different functions and classes used by the Arc-Length solvers
  */
@@ -11,27 +13,108 @@ public interface ArcLengthSolver {
 
     double solve(QBezierCurve curve);
 
+    /**
+     * Solves the arc length of the immutable points of a curve. The segment can not change while it is being
+     * solved, so this is safe to call with a segment that another thread got from a curve being edited.
+     *<p></p>
+     * The default implementation copies the segment into a {@link QBezierCurve} and calls {@link #solve(QBezierCurve)}.
+     * Solvers that can work directly on the segment should override it.
+     */
+    default double solve(BezierSegment segment){
+        QBezierCurve curve = new QBezierCurve("Segment");
+
+        curve.setStart(new Point2D(segment.getP0x(), segment.getP0y()));
+        curve.setControlPoint(new Point2D(segment.getP1x(), segment.getP1y()));
+        curve.setEnd(new Point2D(segment.getP2x(), segment.getP2y()));
+
+        return solve(curve);
+    }
+
+    /**
+     * Solves the arc length of the curve to within the passed tolerance (in feet). Solvers
+     * that have a fixed cost ignore the tolerance and return the same result as {@link #solve(QBezierCurve)}
+     */
+    default double solve(QBezierCurve curve, double tolerance){
+        return solve(curve);
+    }
+
+    /**
+     * Solves many curves at once. The curves are stored as a structure of arrays, so curve <i>i</i> is
+     * made of (p0x[i], p0y[i]), (p1x[i], p1y[i]) and (p2x[i], p2y[i]). The length of curve <i>i</i> is
+     * written into out[i], and out.length curves are solved.
+     *<p></p>
+     * The default implementation copies each curve into a {@link QBezierCurve} and calls {@link #solve(QBezierCurve)}.
+     * Solvers that can work directly on the coordinates should override it.
+     */
+    default void solveAll(double[] p0x, double[] p0y, double[] p1x, double[] p1y,
+                          double[] p2x, double[] p2y, double[] out){
+        QBezierCurve curve = new QBezierCurve("Batch");
+
+        for(int i = 0; i < out.length; i++){
+            curve.setStart(new Point2D(p0x[i], p0y[i]));
+            curve.setControlPoint(new Point2D(p1x[i], p1y[i]));
+            curve.setEnd(new Point2D(p2x[i], p2y[i]));
+
+            out[i] = solve(curve);
+        }
+    }
+
+    /**
+     * The result of benchmarking a solver. All of the times are in nanoseconds per call.
+     */
     class Result{
-        public final double time;
         public final double avgResult;
+        public final double meanTime;
+        public final double medianTime;
+        public final double p99Time;
+        public final double maxTime;
 
-        public Result(double time, double avgResult) {
-            this.time = time;
+        public Result(double avgResult, double meanTime, double medianTime, double p99Time, double maxTime) {
             this.avgResult = avgResult;
+            this.meanTime = meanTime;
+            this.medianTime = medianTime;
+            this.p99Time = p99Time;
+            this.maxTime = maxTime;
         }
-    }
 
-    public static Point2D calc(QBezierCurve curve, double time){
-        double x = calc(time, curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX());
-        double y = calc(time, curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY());
+        /**
+         * Creates a result from timing samples, where each sample is the time (in nanoseconds) it took
+         * to solve the curve batchSize times. Note: the samples array is sorted by this method
+         */
+        public static Result fromSamples(long[] samples, int batchSize, double avgResult){
+            Arrays.sort(samples);
 
-        return new Point2D(x, y);
+            double total = 0;
+            for(long sample : samples){
+                total += sample;
+            }
+
+            double mean = total / samples.length / batchSize;
+            double median = (double) samples[percentileIndex(samples, .50)] / batchSize;
+            double p99 = (double) samples[percentileIndex(samples, .99)] / batchSize;
+            double max = (double) samples[samples.length - 1] / batchSize;
+
+            return new Result(avgResult, mean, median, p99, max);
+        }
+
+        private static int percentileIndex(long[] sortedSamples, double percentile){
+            int index = (int) Math.ceil(percentile * sortedSamples.length) - 1;
+            return Math.max(0, Math.min(sortedSamples.length - 1, index));
+        }
+
+        public double getOpsPerSecond(){
+            return 1e9 / meanTime;
+        }
     }
 
-    static double calc(double time, double p0, double p1, double p2){
-        double iTime = 1 - time;
+    /**
+     * Note: This allocates a new point for every call. Use {@link CurveMath} in loops.
+     */
+    public static Point2D calc(QBezierCurve curve, double time){
+        double x = CurveMath.position(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), time);
+        double y = CurveMath.position(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), time);
 
-        return (Math.pow(iTime, 2) * p0) + (2 * iTime * time * p1)  + (Math.pow(time, 2) * p2);
+        return new Point2D(x, y);
     }
 
 }
@@ -0,0 +1,127 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import java.util.Arrays;
+
+/**
+ * An arc length parameterization of a single curve. The curve is split into evenly spaced
+ * steps of time, and the cumulative length at the end of each step is stored in a table.
+ * Finding the time at a distance is then a binary search and a linear interpolation, which
+ * is O(log n) and does not allocate.
+ *<p></p>
+ * The table does not track changes to the curve, use {@link QBezierCurve#getArcLengthTable()}
+ * to get the table of the current {@link BezierSegment} of a curve, which is cached on the segment.
+ */
+public class ArcLengthTable {
+
+    public static final int DEFAULT_SAMPLES = 256;
+
+    /**
+     * lengths[i] is the length of the curve from t = 0 to t = i / samples
+     */
+    private final double[] lengths;
+    private final int samples;
+
+    public ArcLengthTable(QBezierCurve curve) {
+        this(curve.getSegment(), DEFAULT_SAMPLES);
+    }
+
+    public ArcLengthTable(QBezierCurve curve, int samples) {
+        this(curve.getSegment(), samples);
+    }
+
+    public ArcLengthTable(BezierSegment segment) {
+        this(segment, DEFAULT_SAMPLES);
+    }
+
+    public ArcLengthTable(BezierSegment segment, int samples) {
+        if(samples < 1)
+            throw new IllegalArgumentException("There must be at least one sample: " + samples);
+
+        this.samples = samples;
+        this.lengths = new double[samples + 1];
+
+        calcLengths(segment);
+    }
+
+    /**
+     * Integrates the speed of the curve across each step with Simpson's rule
+     */
+    private void calcLengths(BezierSegment segment) {
+        double dt = 1.0 / samples;
+        double prevSpeed = segment.getSpeed(0);
+
+        for(int i = 1; i <= samples; i++){
+            double t = (double) i / samples;
+            double midSpeed = segment.getSpeed(t - (dt / 2));
+            double speed = segment.getSpeed(t);
+
+            lengths[i] = lengths[i - 1] + (dt / 6) * (prevSpeed + (4 * midSpeed) + speed);
+            prevSpeed = speed;
+        }
+    }
+
+    /**
+     * @return the time (t) on the curve where the length from the start equals the passed distance.
+     * Distances outside of the curve are clamped to 0 and 1
+     */
+    public double timeAtDistance(double distance){
+        if(!(distance > 0))
+            return 0;
+
+        if(distance >= getLength())
+            return 1;
+
+        int index = Arrays.binarySearch(lengths, distance);
+
+        if(index >= 0)
+            return (double) index / samples;
+
+        int upper = -index - 1;
+        int lower = upper - 1;
+        double stepLength = lengths[upper] - lengths[lower];
+        double fraction = stepLength == 0 ? 0 : (distance - lengths[lower]) / stepLength;
+
+        return (lower + fraction) / samples;
+    }
+
+    /**
+     * @return the length of the curve from t = 0 to the passed time
+     */
+    public double distanceAtTime(double time){
+        if(!(time > 0))
+            return 0;
+
+        if(time >= 1)
+            return getLength();
+
+        double scaled = time * samples;
+        int lower = (int) scaled;
+
+        return lengths[lower] + (scaled - lower) * (lengths[lower + 1] - lengths[lower]);
+    }
+
+    /**
+     * Fills the array with the times of out.length points that are evenly spaced by distance,
+     * starting at t = 0 and ending at t = 1
+     */
+    public void fillEvenlySpacedTimes(double[] out){
+        if(out.length == 1){
+            out[0] = 0;
+            return;
+        }
+
+        double spacing = getLength() / (out.length - 1);
+
+        for(int i = 0; i < out.length; i++){
+            out[i] = timeAtDistance(i * spacing);
+        }
+    }
+
+    public double getLength(){
+        return lengths[samples];
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+}
@@ -1,63 +1,100 @@
 package org.inspirerobotics.bcd.planner.curve;
 
-import javafx.application.Platform;
 import javafx.concurrent.Service;
 import javafx.concurrent.Task;
-import javafx.scene.control.ProgressBar;
+
+import java.util.Arrays;
 
 /**
- * This task is responsible for testing different Arc-Length algorithms. It preforms the task multiple
- * times and then averages all of the results together.
+ * This task is responsible for benchmarking different Arc-Length algorithms. It first runs
+ * the solver {@link #WARMUP_COUNT} times so the JIT can compile it, and then times each of
+ * {@link #COUNT} calls with {@link System#nanoTime()}, so the percentiles are the latency of single calls.
+ *<p></p>
+ * The fastest solvers take about as long as a call to nanoTime, so the time of an empty timed section
+ * is measured first (the median of {@link #CALIBRATION_COUNT} tries) and taken off every sample. Samples
+ * are still limited by the resolution of the timer. Progress is only reported outside of the timed section
+ * using {@link #updateProgress(long, long)}, which coalesces the updates to the UI thread.
  */
 public class ArcLengthTask extends Task<ArcLengthSolver.Result> {
 
+    public static final int WARMUP_COUNT = 20_000;
     public static final int COUNT = 100_000;
 
-    private final ProgressBar bar;
+    private static final int CALIBRATION_COUNT = 10_000;
+    private static final int CALLS_PER_UPDATE = 1000;
+
     private final ArcLengthSolver solver;
     private final QBezierCurve curve;
 
-    public ArcLengthTask(QBezierCurve curve, ArcLengthSolver solver, ProgressBar bar) {
+    /**
+     * The warmup results are stored here so the JIT can not remove the warmup loop
+     */
+    private volatile double warmupSink;
+
+    public ArcLengthTask(QBezierCurve curve, ArcLengthSolver solver) {
         this.curve = curve;
         this.solver = solver;
-        this.bar = bar;
-
-        this.bar.setProgress(0);
     }
 
     @Override
     protected ArcLengthSolver.Result call() {
+        long[] samples = new long[COUNT];
+        double warmupResult = 0;
         double result = 0;
-        long time = System.currentTimeMillis();
 
-        for(int i = 0; i < COUNT; i++){
-            if(this.isCancelled()){
+        for(int i = 0; i < WARMUP_COUNT; i++){
+            if(i % 1000 == 0 && this.isCancelled()){
                 return null;
             }
 
-            result += solver.solve(curve);
+            warmupResult += solver.solve(curve);
+        }
+
+        long overhead = calcTimerOverhead();
+
+        for(int i = 0; i < samples.length; i++){
+            if(i % CALLS_PER_UPDATE == 0){
+                if(this.isCancelled()){
+                    return null;
+                }
 
-            if(i % 1000 == 0){
-                syncProgressBar(i);
+                updateProgress(i, samples.length);
             }
+
+            long start = System.nanoTime();
+            result += solver.solve(curve);
+            long time = System.nanoTime() - start;
+
+            samples[i] = Math.max(0, time - overhead);
         }
 
-        time = System.currentTimeMillis() - time;
-        double timePer = (double) time / COUNT;
-        result /= COUNT;
+        updateProgress(samples.length, samples.length);
+
+        warmupSink = warmupResult;
 
-        return new ArcLengthSolver.Result(timePer, result);
+        return ArcLengthSolver.Result.fromSamples(samples, 1, result / COUNT);
     }
 
-    private void syncProgressBar(int i) {
-        Platform.runLater(() -> bar.setProgress((double) i / COUNT));
+    /**
+     * @return the median time (in nanoseconds) of timing nothing, which is the cost of the two calls to nanoTime
+     */
+    private static long calcTimerOverhead(){
+        long[] times = new long[CALIBRATION_COUNT];
+
+        for(int i = 0; i < times.length; i++){
+            long start = System.nanoTime();
+            times[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(times);
+        return times[times.length / 2];
     }
 
-    public static Service<ArcLengthSolver.Result> createService(QBezierCurve curve, ArcLengthSolver solver, ProgressBar bar){
+    public static Service<ArcLengthSolver.Result> createService(QBezierCurve curve, ArcLengthSolver solver){
         return new Service<>() {
             @Override
             protected ArcLengthTask createTask() {
-                return new ArcLengthTask(curve, solver, bar);
+                return new ArcLengthTask(curve, solver);
             }
         };
     }
@@ -0,0 +1,61 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+/**
+ * An Arc Length Solver that picks the cheapest solver that is accurate for the shape of each curve:
+ * <ul>
+ *     <li>Flat curves (the control polygon is within the tolerance of the chord) use the {@link ControlPolygonSolver}</li>
+ *     <li>Nearly straight or collinear curves, where the closed form loses its precision
+ *     (see {@link BezierSegment#isDegenerate()}), use the {@link AdaptiveSubdivisionSolver}</li>
+ *     <li>Every other curve uses the closed form of the {@link IntegrationSolver}</li>
+ * </ul>
+ * The shape tests only use the points of the curve and the coefficients cached
+ * on its {@link BezierSegment}, so they cost a few multiplications.
+ */
+public class AutoArcLengthSolver implements ArcLengthSolver {
+
+    private final AdaptiveSubdivisionSolver adaptiveSolver;
+    private final double tolerance;
+
+    public AutoArcLengthSolver(double tolerance) {
+        this.adaptiveSolver = new AdaptiveSubdivisionSolver(tolerance);
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public double solve(QBezierCurve curve) {
+        return solve(curve, tolerance);
+    }
+
+    @Override
+    public double solve(BezierSegment segment) {
+        return solve(segment, tolerance);
+    }
+
+    @Override
+    public double solve(QBezierCurve curve, double tolerance) {
+        return solve(curve.getSegment(), tolerance);
+    }
+
+    private double solve(BezierSegment segment, double tolerance) {
+        double chord = Math.hypot(segment.getP2x() - segment.getP0x(), segment.getP2y() - segment.getP0y());
+        double polygon = Math.hypot(segment.getP1x() - segment.getP0x(), segment.getP1y() - segment.getP0y()) +
+                Math.hypot(segment.getP2x() - segment.getP1x(), segment.getP2y() - segment.getP1y());
+
+        if(polygon - chord <= tolerance)
+            return ((2 * chord) + polygon) / 3;
+
+        if(segment.isDegenerate())
+            return adaptiveSolver.solve(segment, tolerance);
+
+        return IntegrationSolver.solve(segment.getA(), segment.getB(), segment.getC());
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    @Override
+    public String getName() {
+        return "Automatic (tol=" + tolerance + ")";
+    }
+}
@@ -0,0 +1,295 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable Quadratic Bezier curve made only of doubles. The power basis coefficients
+ * (B(t) = at<sup>2</sup> + bt + P<sub>0</sub>, with a = P<sub>0</sub> - 2P<sub>1</sub> + P<sub>2</sub>
+ * and b = 2(P<sub>1</sub> - P<sub>0</sub>)) and the coefficients of the squared speed
+ * (|B'(t)|<sup>2</sup> = At<sup>2</sup> + Bt + C) are calculated when the segment is created.
+ * The bounding box, the length and the {@link ArcLengthTable} are calculated the first time they
+ * are used and then cached.
+ *<p></p>
+ * Every segment has a unique version, so data derived from a segment can be cached by its version.
+ * {@link QBezierCurve} creates a new segment every time one of its points changes.
+ */
+public final class BezierSegment {
+
+    /**
+     * Below this ratio of A / C (nearly straight) or (4AC - B<sup>2</sup>) / 4AC (nearly collinear)
+     * the closed form of the length loses too much precision to cancellation
+     */
+    private static final double DEGENERATE_RATIO = 1e-8;
+
+    private static final AtomicLong nextVersion = new AtomicLong();
+    private static final GaussLegendreSolver quadrature = new GaussLegendreSolver(16);
+
+    private final long version = nextVersion.incrementAndGet();
+
+    private final double p0x;
+    private final double p0y;
+    private final double p1x;
+    private final double p1y;
+    private final double p2x;
+    private final double p2y;
+
+    private final double ax;
+    private final double ay;
+    private final double bx;
+    private final double by;
+
+    private final double A;
+    private final double B;
+    private final double C;
+    private final boolean degenerate;
+
+    /**
+     * These are calculated the first time they are needed. The calculations
+     * always give the same result, so a race between threads is harmless
+     */
+    private volatile double length = Double.NaN;
+    private volatile double[] bounds;
+    private volatile ArcLengthTable arcLengthTable;
+
+    public BezierSegment(double p0x, double p0y, double p1x, double p1y, double p2x, double p2y) {
+        this.p0x = p0x;
+        this.p0y = p0y;
+        this.p1x = p1x;
+        this.p1y = p1y;
+        this.p2x = p2x;
+        this.p2y = p2y;
+
+        this.ax = p0x - (2 * p1x) + p2x;
+        this.ay = p0y - (2 * p1y) + p2y;
+        this.bx = 2 * (p1x - p0x);
+        this.by = 2 * (p1y - p0y);
+
+        this.A = 4 * (ax * ax + ay * ay);
+        this.B = 4 * (ax * bx + ay * by);
+        this.C = bx * bx + by * by;
+        this.degenerate = A <= DEGENERATE_RATIO * C || C == 0 || (4 * A * C) - (B * B) <= DEGENERATE_RATIO * 4 * A * C;
+    }
+
+    public double getX(double time){
+        return ((ax * time) + bx) * time + p0x;
+    }
+
+    public double getY(double time){
+        return ((ay * time) + by) * time + p0y;
+    }
+
+    public double getDerivativeX(double time){
+        return (2 * ax * time) + bx;
+    }
+
+    public double getDerivativeY(double time){
+        return (2 * ay * time) + by;
+    }
+
+    public double getSpeed(double time){
+        return Math.sqrt((A * time + B) * time + C);
+    }
+
+    /**
+     * @return the signed curvature of the curve (1 / radius), or 0 where the curve has no speed
+     */
+    public double getCurvature(double time){
+        double dx = getDerivativeX(time);
+        double dy = getDerivativeY(time);
+        double speedSquared = dx * dx + dy * dy;
+
+        if(speedSquared == 0)
+            return 0;
+
+        return ((dx * 2 * ay) - (dy * 2 * ax)) / (speedSquared * Math.sqrt(speedSquared));
+    }
+
+    /**
+     * @return the length of the curve from t = 0 to t = 1
+     */
+    public double getLength(){
+        double result = length;
+
+        if(Double.isNaN(result)){
+            result = lengthAt(1);
+            length = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the length of the curve from t = 0 to the passed time. This uses the closed form of the
+     * {@link IntegrationSolver} unless the curve is degenerate, in which case quadrature is used
+     */
+    public double lengthAt(double time){
+        if(degenerate)
+            return numericLengthAt(time);
+
+        double result = antiderivative(time) - antiderivative(0);
+
+        if(!Double.isFinite(result))
+            return numericLengthAt(time);
+
+        return result;
+    }
+
+    /**
+     * Integrates the speed with quadrature. The speed has a kink where it is at its minimum
+     * (t = -B / 2A), so the integration is split there to keep both halves smooth
+     */
+    private double numericLengthAt(double time){
+        double slowest = A > 0 ? -B / (2 * A) : Double.NaN;
+
+        if(slowest > 0 && slowest < time){
+            return quadrature.lengthBetween(this, 0, slowest) + quadrature.lengthBetween(this, slowest, time);
+        }
+
+        return quadrature.lengthBetween(this, 0, time);
+    }
+
+    /**
+     * The antiderivative of sqrt(At<sup>2</sup> + Bt + C), which is the speed of the curve
+     */
+    private double antiderivative(double t){
+        double speed = getSpeed(t);
+        double sqrtA = Math.sqrt(A);
+        double linear = (2 * A * t) + B;
+
+        return (linear * speed) / (4 * A) +
+                ((4 * A * C) - (B * B)) / (8 * A * sqrtA) * Math.log((2 * sqrtA * speed) + linear);
+    }
+
+    public ArcLengthTable getArcLengthTable(){
+        ArcLengthTable result = arcLengthTable;
+
+        if(result == null){
+            result = new ArcLengthTable(this);
+            arcLengthTable = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the bounding box of the curve as {minX, minY, maxX, maxY}. Note: the array is shared, do not modify it
+     */
+    private double[] getBounds(){
+        double[] result = bounds;
+
+        if(result == null){
+            result = new double[4];
+            calcBounds(p0x, p1x, p2x, ax, result, 0);
+            calcBounds(p0y, p1y, p2y, ay, result, 1);
+            bounds = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * A quadratic only has an extreme at its end points or where its derivative is 0
+     */
+    private static void calcBounds(double p0, double p1, double p2, double a, double[] out, int offset){
+        double min = Math.min(p0, p2);
+        double max = Math.max(p0, p2);
+        double extremeTime = a == 0 ? Double.NaN : (p0 - p1) / a;
+
+        if(extremeTime > 0 && extremeTime < 1){
+            double extreme = CurveMath.position(p0, p1, p2, extremeTime);
+            min = Math.min(min, extreme);
+            max = Math.max(max, extreme);
+        }
+
+        out[offset] = min;
+        out[offset + 2] = max;
+    }
+
+    public double getMinX(){
+        return getBounds()[0];
+    }
+
+    public double getMinY(){
+        return getBounds()[1];
+    }
+
+    public double getMaxX(){
+        return getBounds()[2];
+    }
+
+    public double getMaxY(){
+        return getBounds()[3];
+    }
+
+    /**
+     * @return true if the curve is nearly straight or collinear, where the closed form of the length breaks down
+     */
+    public boolean isDegenerate() {
+        return degenerate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public double getP0x() {
+        return p0x;
+    }
+
+    public double getP0y() {
+        return p0y;
+    }
+
+    public double getP1x() {
+        return p1x;
+    }
+
+    public double getP1y() {
+        return p1y;
+    }
+
+    public double getP2x() {
+        return p2x;
+    }
+
+    public double getP2y() {
+        return p2y;
+    }
+
+    /**
+     * @return the x part of a = P<sub>0</sub> - 2P<sub>1</sub> + P<sub>2</sub>
+     */
+    public double getAx() {
+        return ax;
+    }
+
+    public double getAy() {
+        return ay;
+    }
+
+    /**
+     * @return the x part of b = 2(P<sub>1</sub> - P<sub>0</sub>)
+     */
+    public double getBx() {
+        return bx;
+    }
+
+    public double getBy() {
+        return by;
+    }
+
+    /**
+     * @return A in |B'(t)|<sup>2</sup> = At<sup>2</sup> + Bt + C
+     */
+    public double getA() {
+        return A;
+    }
+
+    public double getB() {
+        return B;
+    }
+
+    public double getC() {
+        return C;
+    }
+}
@@ -1,7 +1,5 @@
 package org.inspirerobotics.bcd.planner.curve;
 
-import javafx.geometry.Point2D;
-
 /**
  * An Arc Length Solver that brute forces the arc length by finding the distance
  * of the line iteratively (sum of all of distances between small steps in time)
@@ -16,15 +14,32 @@ public class BruteForceArcSolver implements ArcLengthSolver{
 
     @Override
     public double solve(QBezierCurve curve) {
-        Point2D prev = ArcLengthSolver.calc(curve, 0);
+        return solve(curve.getStart().getX(), curve.getStart().getY(),
+                curve.getControlPoint().getX(), curve.getControlPoint().getY(),
+                curve.getEnd().getX(), curve.getEnd().getY());
+    }
+
+    @Override
+    public double solve(BezierSegment segment) {
+        return solve(segment.getP0x(), segment.getP0y(), segment.getP1x(), segment.getP1y(),
+                segment.getP2x(), segment.getP2y());
+    }
+
+    private double solve(double p0x, double p0y, double p1x, double p1y, double p2x, double p2y){
+        double prevX = p0x;
+        double prevY = p0y;
         double result = 0;
 
         for(double t = dt; t < 1; t += dt){
-            Point2D curr = ArcLengthSolver.calc(curve, t);
+            double currX = CurveMath.position(p0x, p1x, p2x, t);
+            double currY = CurveMath.position(p0y, p1y, p2y, t);
+            double dx = currX - prevX;
+            double dy = currY - prevY;
 
-            result += prev.distance(curr);
+            result += Math.sqrt(dx * dx + dy * dy);
 
-            prev = curr;
+            prevX = currX;
+            prevY = currY;
         }
 
         return result;
@@ -0,0 +1,146 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An Arc Length Solver that remembers the results of another solver. The results are keyed by
+ * the six coordinates of the curve, so an edited curve is solved again. When the cache is full
+ * the least recently used result is removed.
+ *<p></p>
+ * The cache is safe to share between the UI thread and background threads. The points of the curve are
+ * read once, from its immutable {@link BezierSegment}, and both the key and the length (from
+ * {@link ArcLengthSolver#solve(BezierSegment)}) come from that snapshot, so a curve edited on another
+ * thread can not store a length under the wrong key.
+ * The wrapped solver is called outside of the lock, so two threads that miss on the same curve may both solve it.
+ * {@link #solve(QBezierCurve, double)} is not cached, because the result depends on the tolerance.
+ */
+public class CachingArcLengthSolver implements ArcLengthSolver {
+
+    private final ArcLengthSolver solver;
+    private final int maxSize;
+    private final Map<CurveKey, Double> cache;
+
+    private long hits;
+    private long misses;
+
+    public CachingArcLengthSolver(ArcLengthSolver solver, int maxSize) {
+        if(maxSize < 1)
+            throw new IllegalArgumentException("The cache must hold at least one curve: " + maxSize);
+
+        this.solver = solver;
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(16, .75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CurveKey, Double> eldest) {
+                return size() > CachingArcLengthSolver.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    public double solve(QBezierCurve curve) {
+        return solve(curve.getSegment());
+    }
+
+    @Override
+    public double solve(BezierSegment segment) {
+        CurveKey key = new CurveKey(segment);
+
+        synchronized(this){
+            Double result = cache.get(key);
+
+            if(result != null){
+                hits++;
+                return result;
+            }
+
+            misses++;
+        }
+
+        double result = solver.solve(segment);
+
+        synchronized(this){
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    @Override
+    public double solve(QBezierCurve curve, double tolerance) {
+        return solver.solve(curve, tolerance);
+    }
+
+    public synchronized void clear(){
+        cache.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int getSize(){
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public String getName() {
+        return "Cached " + solver.getName();
+    }
+
+    /**
+     * The six coordinates of a curve
+     */
+    private static class CurveKey{
+        private final double p0x;
+        private final double p0y;
+        private final double p1x;
+        private final double p1y;
+        private final double p2x;
+        private final double p2y;
+
+        CurveKey(BezierSegment segment) {
+            this.p0x = segment.getP0x();
+            this.p0y = segment.getP0y();
+            this.p1x = segment.getP1x();
+            this.p1y = segment.getP1y();
+            this.p2x = segment.getP2x();
+            this.p2y = segment.getP2y();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o)
+                return true;
+            if(!(o instanceof CurveKey))
+                return false;
+
+            CurveKey other = (CurveKey) o;
+            return Double.compare(p0x, other.p0x) == 0 && Double.compare(p0y, other.p0y) == 0 &&
+                    Double.compare(p1x, other.p1x) == 0 && Double.compare(p1y, other.p1y) == 0 &&
+                    Double.compare(p2x, other.p2x) == 0 && Double.compare(p2y, other.p2y) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Double.hashCode(p0x);
+            result = 31 * result + Double.hashCode(p0y);
+            result = 31 * result + Double.hashCode(p1x);
+            result = 31 * result + Double.hashCode(p1y);
+            result = 31 * result + Double.hashCode(p2x);
+            result = 31 * result + Double.hashCode(p2y);
+            return result;
+        }
+    }
+}
@@ -19,6 +19,34 @@ public class ControlPolygonSolver implements ArcLengthSolver {
         return ((2 * chordLength) + perimeter) / 3;
     }
 
+    @Override
+    public double solve(BezierSegment segment) {
+        double chordLength = Math.hypot(segment.getP2x() - segment.getP0x(), segment.getP2y() - segment.getP0y());
+        double perimeter = Math.hypot(segment.getP1x() - segment.getP0x(), segment.getP1y() - segment.getP0y()) +
+                Math.hypot(segment.getP2x() - segment.getP1x(), segment.getP2y() - segment.getP1y());
+
+        return ((2 * chordLength) + perimeter) / 3;
+    }
+
+    @Override
+    public void solveAll(double[] p0x, double[] p0y, double[] p1x, double[] p1y,
+                         double[] p2x, double[] p2y, double[] out) {
+        for(int i = 0; i < out.length; i++){
+            double chordX = p2x[i] - p0x[i];
+            double chordY = p2y[i] - p0y[i];
+            double sideOneX = p1x[i] - p0x[i];
+            double sideOneY = p1y[i] - p0y[i];
+            double sideTwoX = p2x[i] - p1x[i];
+            double sideTwoY = p2y[i] - p1y[i];
+
+            double chordLength = Math.sqrt(chordX * chordX + chordY * chordY);
+            double perimeter = Math.sqrt(sideOneX * sideOneX + sideOneY * sideOneY) +
+                    Math.sqrt(sideTwoX * sideTwoX + sideTwoY * sideTwoY);
+
+            out[i] = ((2 * chordLength) + perimeter) / 3;
+        }
+    }
+
     @Override
     public String getName() {
         return "Control Polygon";
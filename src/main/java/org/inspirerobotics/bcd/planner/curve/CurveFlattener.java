@@ -0,0 +1,85 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Turns curves into polylines that are never further than a tolerance (in feet) from the curve.
+ *<p></p>
+ * The second derivative of a quadratic is the constant 2a (a = P<sub>0</sub> - 2P<sub>1</sub> + P<sub>2</sub>),
+ * so the furthest a line between two points at a step of h in time can be from the curve is |a|h<sup>2</sup>/4.
+ * This gives the number of evenly spaced steps directly: n = ceil(sqrt(|a| / (4 * tolerance))), without
+ * any recursion. Straight curves become a single line.
+ *<p></p>
+ * The polylines are cached by {@link BezierSegment}, which is replaced every time a curve changes, so an
+ * edited curve is flattened again and the old polyline is dropped with the old segment. The cache is safe
+ * to share between threads.
+ */
+public class CurveFlattener {
+
+    /**
+     * Limits the size of the polyline for curves that are huge compared to the tolerance (or are NaN)
+     */
+    public static final int MAX_SEGMENTS = 1024;
+
+    private final double tolerance;
+    private final Map<BezierSegment, Polyline> cache = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public CurveFlattener(double tolerance) {
+        if(!(tolerance > 0))
+            throw new IllegalArgumentException("Tolerance must be positive: " + tolerance);
+
+        this.tolerance = tolerance;
+    }
+
+    public Polyline flatten(QBezierCurve curve){
+        return flatten(curve.getSegment());
+    }
+
+    public Polyline flatten(BezierSegment segment){
+        Polyline polyline = cache.get(segment);
+
+        if(polyline == null){
+            polyline = createPolyline(segment);
+            cache.put(segment, polyline);
+        }
+
+        return polyline;
+    }
+
+    private Polyline createPolyline(BezierSegment segment){
+        int segments = calcSegmentCount(segment);
+        double[] xs = new double[segments + 1];
+        double[] ys = new double[segments + 1];
+
+        for(int i = 0; i <= segments; i++){
+            double t = (double) i / segments;
+            xs[i] = segment.getX(t);
+            ys[i] = segment.getY(t);
+        }
+
+        //Use the exact end point instead of the evaluated one, so polylines of joined curves connect
+        xs[segments] = segment.getP2x();
+        ys[segments] = segment.getP2y();
+
+        return new Polyline(xs, ys);
+    }
+
+    /**
+     * @return the number of lines needed to stay within the tolerance
+     */
+    public int calcSegmentCount(BezierSegment segment){
+        double a = Math.hypot(segment.getAx(), segment.getAy());
+        double segments = Math.ceil(Math.sqrt(a / (4 * tolerance)));
+
+        if(!(segments >= 1))
+            return 1;
+
+        return (int) Math.min(segments, MAX_SEGMENTS);
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+}
@@ -0,0 +1,321 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Point2D;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A spatial index of the curves, made of two uniform grids (in feet). The first grid holds the
+ * handles of the curves (start, control point and end), and the second grid holds the bounding
+ * boxes of the curves. Finding the handle nearest to a point only looks at the cells around the
+ * point, so it takes the same time no matter how many curves there are.
+ *<p></p>
+ * The index listens to the curves and moves a curve to its new cells when its points change. If the
+ * list of curves is an {@link ObservableList} the index is also rebuilt when curves are added or removed.
+ * Call {@link #dispose()} when the index is no longer needed to remove the listeners. The index is not
+ * thread safe, it should only be used from the thread that edits the curves (normally the UI thread).
+ */
+public class CurveIndex {
+
+    public static final double HANDLE_CELL_SIZE = 2;
+    public static final double BOUNDS_CELL_SIZE = 8;
+
+    /**
+     * Curves with bounding boxes that cover more cells than this are kept in a separate list
+     * that is always searched, so a huge curve can not fill the whole grid
+     */
+    private static final int MAX_BOUNDS_CELLS = 1024;
+
+    private final List<QBezierCurve> curves;
+    private final ListChangeListener<QBezierCurve> listListener = change -> rebuild();
+    private final Map<QBezierCurve, Entry> entries = new IdentityHashMap<>();
+
+    private final Map<Long, List<Handle>> handleCells = new HashMap<>();
+    private final Map<Long, List<QBezierCurve>> boundsCells = new HashMap<>();
+    private final List<QBezierCurve> oversizedCurves = new ArrayList<>();
+
+    public CurveIndex(List<QBezierCurve> curves) {
+        this.curves = curves;
+
+        if(curves instanceof ObservableList){
+            ((ObservableList<QBezierCurve>) curves).addListener(listListener);
+        }
+
+        rebuild();
+    }
+
+    private void rebuild() {
+        entries.values().forEach(Entry::removeListener);
+        entries.clear();
+        handleCells.clear();
+        boundsCells.clear();
+        oversizedCurves.clear();
+
+        for(QBezierCurve curve : curves){
+            if(!entries.containsKey(curve)){
+                Entry entry = new Entry(curve);
+                entries.put(curve, entry);
+                entry.insert(curve.getSegment());
+            }
+        }
+    }
+
+    public void dispose() {
+        if(curves instanceof ObservableList){
+            ((ObservableList<QBezierCurve>) curves).removeListener(listListener);
+        }
+
+        entries.values().forEach(Entry::removeListener);
+        entries.clear();
+    }
+
+    /**
+     * @return the handle closest to the point that is within the max distance, or null if there are none.
+     * Every cell the max distance reaches is searched, so a max distance up to {@link #HANDLE_CELL_SIZE}
+     * searches at most 3x3 cells
+     */
+    public Handle findNearestHandle(double x, double y, double maxDistance){
+        int minX = cell(x - maxDistance, HANDLE_CELL_SIZE);
+        int maxX = cell(x + maxDistance, HANDLE_CELL_SIZE);
+        int minY = cell(y - maxDistance, HANDLE_CELL_SIZE);
+        int maxY = cell(y + maxDistance, HANDLE_CELL_SIZE);
+
+        Handle nearest = null;
+        double nearestDistance = maxDistance;
+
+        for(int i = minX; i <= maxX; i++){
+            for(int j = minY; j <= maxY; j++){
+                List<Handle> handles = handleCells.get(key(i, j));
+
+                if(handles == null)
+                    continue;
+
+                for(Handle handle : handles){
+                    double distance = Math.hypot(handle.getX() - x, handle.getY() - y);
+
+                    if(distance < nearestDistance){
+                        nearestDistance = distance;
+                        nearest = handle;
+                    }
+                }
+            }
+        }
+
+        return nearest;
+    }
+
+    /**
+     * Passes every curve whose bounding box might be within the radius of the point to the consumer.
+     * Each curve is passed at most once, but curves that are further away may also be passed.
+     */
+    public void forEachCurveNear(double x, double y, double radius, Consumer<QBezierCurve> consumer){
+        int minX = cell(x - radius, BOUNDS_CELL_SIZE);
+        int maxX = cell(x + radius, BOUNDS_CELL_SIZE);
+        int minY = cell(y - radius, BOUNDS_CELL_SIZE);
+        int maxY = cell(y + radius, BOUNDS_CELL_SIZE);
+        Map<QBezierCurve, Boolean> visited = new IdentityHashMap<>();
+
+        oversizedCurves.forEach(consumer);
+
+        for(int i = minX; i <= maxX; i++){
+            for(int j = minY; j <= maxY; j++){
+                List<QBezierCurve> cellCurves = boundsCells.get(key(i, j));
+
+                if(cellCurves == null)
+                    continue;
+
+                for(QBezierCurve curve : cellCurves){
+                    if(visited.put(curve, Boolean.TRUE) == null){
+                        consumer.accept(curve);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the closest point on the closest curve within the max distance of the point, or null if
+     * there are none. Only curves in the cells around the point are checked, and curves whose bounding
+     * box is further away than the closest point found so far are skipped.
+     */
+    public CurveProjection findNearestCurve(double x, double y, double maxDistance){
+        CurveProjection[] closest = new CurveProjection[1];
+
+        forEachCurveNear(x, y, maxDistance, curve -> {
+            double bestDistance = closest[0] == null ? maxDistance : closest[0].distance;
+
+            if(CurveProjection.distanceToBounds(curve.getSegment(), x, y) >= bestDistance)
+                return;
+
+            CurveProjection projection = CurveProjection.project(curve, x, y);
+
+            if(projection.distance < bestDistance){
+                closest[0] = projection;
+            }
+        });
+
+        return closest[0];
+    }
+
+    private static int cell(double value, double cellSize){
+        return (int) Math.floor(value / cellSize);
+    }
+
+    private static long key(int cellX, int cellY){
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static <T> void add(Map<Long, List<T>> cells, long key, T value){
+        cells.computeIfAbsent(key, k -> new ArrayList<>(2)).add(value);
+    }
+
+    private static <T> void remove(Map<Long, List<T>> cells, long key, T value){
+        List<T> list = cells.get(key);
+
+        if(list == null)
+            return;
+
+        list.remove(value);
+
+        if(list.isEmpty()){
+            cells.remove(key);
+        }
+    }
+
+    /**
+     * The cells a curve is currently in, so the curve can be removed from
+     * them when its points change
+     */
+    private class Entry{
+        private final QBezierCurve curve;
+        private final Handle[] handles;
+        private final long[] handleKeys = new long[3];
+        private final ChangeListener<BezierSegment> listener = (observable, oldSegment, segment) -> update(segment);
+
+        private int minCellX, minCellY, maxCellX, maxCellY;
+
+        Entry(QBezierCurve curve) {
+            this.curve = curve;
+            this.handles = new Handle[]{
+                    new Handle(curve, HandleType.START),
+                    new Handle(curve, HandleType.CONTROL_POINT),
+                    new Handle(curve, HandleType.END)
+            };
+
+            curve.segmentProperty().addListener(listener);
+        }
+
+        void removeListener(){
+            curve.segmentProperty().removeListener(listener);
+        }
+
+        private void update(BezierSegment segment){
+            remove();
+            insert(segment);
+        }
+
+        void insert(BezierSegment segment){
+            for(int i = 0; i < handles.length; i++){
+                handleKeys[i] = key(cell(handles[i].getX(), HANDLE_CELL_SIZE), cell(handles[i].getY(), HANDLE_CELL_SIZE));
+                add(handleCells, handleKeys[i], handles[i]);
+            }
+
+            minCellX = cell(segment.getMinX(), BOUNDS_CELL_SIZE);
+            minCellY = cell(segment.getMinY(), BOUNDS_CELL_SIZE);
+            maxCellX = cell(segment.getMaxX(), BOUNDS_CELL_SIZE);
+            maxCellY = cell(segment.getMaxY(), BOUNDS_CELL_SIZE);
+
+            if((long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) > MAX_BOUNDS_CELLS){
+                oversizedCurves.add(curve);
+                return;
+            }
+
+            for(int i = minCellX; i <= maxCellX; i++){
+                for(int j = minCellY; j <= maxCellY; j++){
+                    add(boundsCells, key(i, j), curve);
+                }
+            }
+        }
+
+        private void remove(){
+            for(int i = 0; i < handles.length; i++){
+                CurveIndex.remove(handleCells, handleKeys[i], handles[i]);
+            }
+
+            if(oversizedCurves.remove(curve))
+                return;
+
+            for(int i = minCellX; i <= maxCellX; i++){
+                for(int j = minCellY; j <= maxCellY; j++){
+                    CurveIndex.remove(boundsCells, key(i, j), curve);
+                }
+            }
+        }
+    }
+
+    public enum HandleType{
+        START, CONTROL_POINT, END
+    }
+
+    /**
+     * One of the three points of a curve that can be dragged
+     */
+    public static class Handle{
+        private final QBezierCurve curve;
+        private final HandleType type;
+
+        Handle(QBezierCurve curve, HandleType type) {
+            this.curve = curve;
+            this.type = type;
+        }
+
+        public Point2D getPoint(){
+            switch(type){
+                case START:
+                    return curve.getStart();
+                case CONTROL_POINT:
+                    return curve.getControlPoint();
+                default:
+                    return curve.getEnd();
+            }
+        }
+
+        public void setPoint(Point2D point){
+            switch(type){
+                case START:
+                    curve.setStart(point);
+                    break;
+                case CONTROL_POINT:
+                    curve.setControlPoint(point);
+                    break;
+                default:
+                    curve.setEnd(point);
+                    break;
+            }
+        }
+
+        double getX(){
+            return getPoint().getX();
+        }
+
+        double getY(){
+            return getPoint().getY();
+        }
+
+        public QBezierCurve getCurve() {
+            return curve;
+        }
+
+        public HandleType getType() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+/**
+ * Allocation free functions for evaluating a Quadratic Bezier curve. The functions either
+ * return a single coordinate as a scalar or write an (x, y) pair into a caller supplied array,
+ * so they can be used in the inner loops of the solvers and the simulation.
+ */
+public final class CurveMath {
+
+    private CurveMath() {
+    }
+
+    /**
+     * @return one coordinate of B(t) = (1 - t)<sup>2</sup>P<sub>0</sub> + 2(1 - t)tP<sub>1</sub> + t<sup>2</sup>P<sub>2</sub>
+     */
+    public static double position(double p0, double p1, double p2, double time){
+        double iTime = 1 - time;
+
+        return (iTime * iTime * p0) + (2 * iTime * time * p1) + (time * time * p2);
+    }
+
+    /**
+     * @return one coordinate of B'(t) = 2(1 - t)(P<sub>1</sub> - P<sub>0</sub>) + 2t(P<sub>2</sub> - P<sub>1</sub>)
+     */
+    public static double derivative(double p0, double p1, double p2, double time){
+        return (2 * (1 - time) * (p1 - p0)) + (2 * time * (p2 - p1));
+    }
+
+    /**
+     * @return one coordinate of B''(t) = 2(P<sub>2</sub> - 2P<sub>1</sub> + P<sub>0</sub>), which is constant for a quadratic
+     */
+    public static double secondDerivative(double p0, double p1, double p2){
+        return 2 * (p2 - (2 * p1) + p0);
+    }
+
+    /**
+     * Writes B(t) into out[0] (x) and out[1] (y)
+     */
+    public static void position(QBezierCurve curve, double time, double[] out){
+        out[0] = position(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), time);
+        out[1] = position(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), time);
+    }
+
+    /**
+     * Writes B'(t) into out[0] (x) and out[1] (y)
+     */
+    public static void derivative(QBezierCurve curve, double time, double[] out){
+        out[0] = derivative(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), time);
+        out[1] = derivative(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), time);
+    }
+
+    /**
+     * Writes B''(t) into out[0] (x) and out[1] (y)
+     */
+    public static void secondDerivative(QBezierCurve curve, double[] out){
+        out[0] = secondDerivative(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX());
+        out[1] = secondDerivative(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY());
+    }
+
+    /**
+     * @return the speed of the curve, |B'(t)|
+     */
+    public static double speed(QBezierCurve curve, double time){
+        double dx = derivative(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), time);
+        double dy = derivative(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), time);
+
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * @return the angle of the tangent of the curve in radians
+     */
+    public static double angle(QBezierCurve curve, double time){
+        double dx = derivative(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), time);
+        double dy = derivative(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), time);
+
+        return Math.atan2(dy, dx);
+    }
+
+    /**
+     * @return the signed curvature of the curve (1 / radius), or 0 where the curve has no speed
+     */
+    public static double curvature(QBezierCurve curve, double time){
+        double dx = derivative(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), time);
+        double dy = derivative(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), time);
+        double ddx = secondDerivative(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX());
+        double ddy = secondDerivative(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY());
+
+        double speedSquared = dx * dx + dy * dy;
+
+        if(speedSquared == 0)
+            return 0;
+
+        return ((dx * ddy) - (dy * ddx)) / (speedSquared * Math.sqrt(speedSquared));
+    }
+}
@@ -0,0 +1,162 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import java.util.List;
+
+/**
+ * Finds the closest point on a curve to a query point.
+ *<p></p>
+ * With B(t) = at<sup>2</sup> + bt + P<sub>0</sub> and d = P<sub>0</sub> - Q, the closest point is where
+ * (B(t) - Q) &middot; B'(t) = 0, which is the cubic
+ * 2(a&middot;a)t<sup>3</sup> + 3(a&middot;b)t<sup>2</sup> + (b&middot;b + 2a&middot;d)t + b&middot;d = 0.
+ * The real roots are found in closed form and polished with a Newton step, and then compared
+ * against the two end points of the curve.
+ */
+public final class CurveProjection {
+
+    private static final double EPSILON = 1e-12;
+
+    public final QBezierCurve curve;
+    public final double time;
+    public final double x;
+    public final double y;
+    public final double distance;
+
+    private CurveProjection(QBezierCurve curve, double time, double x, double y, double distance) {
+        this.curve = curve;
+        this.time = time;
+        this.x = x;
+        this.y = y;
+        this.distance = distance;
+    }
+
+    public static CurveProjection project(QBezierCurve curve, double x, double y){
+        BezierSegment segment = curve.getSegment();
+        double time = findClosestTime(segment, x, y);
+        double closestX = segment.getX(time);
+        double closestY = segment.getY(time);
+
+        return new CurveProjection(curve, time, closestX, closestY, Math.hypot(closestX - x, closestY - y));
+    }
+
+    /**
+     * Finds the closest point on any of the curves. Curves whose bounding box is further away than the
+     * closest point found so far are skipped without solving the cubic.
+     *
+     * @return the closest point, or null if there are no curves
+     */
+    public static CurveProjection project(List<QBezierCurve> curves, double x, double y){
+        CurveProjection closest = null;
+
+        for(QBezierCurve curve : curves){
+            if(closest != null && distanceToBounds(curve.getSegment(), x, y) >= closest.distance)
+                continue;
+
+            CurveProjection projection = project(curve, x, y);
+
+            if(closest == null || projection.distance < closest.distance){
+                closest = projection;
+            }
+        }
+
+        return closest;
+    }
+
+    /**
+     * @return the shortest distance from the point to the bounding box of the segment (0 if it is inside)
+     */
+    public static double distanceToBounds(BezierSegment segment, double x, double y){
+        double dx = Math.max(0, Math.max(segment.getMinX() - x, x - segment.getMaxX()));
+        double dy = Math.max(0, Math.max(segment.getMinY() - y, y - segment.getMaxY()));
+
+        return Math.hypot(dx, dy);
+    }
+
+    /**
+     * @return the time of the point on the segment that is closest to the passed point. This does not allocate
+     */
+    public static double findClosestTime(BezierSegment segment, double x, double y){
+        double ax = segment.getAx();
+        double ay = segment.getAy();
+        double bx = segment.getBx();
+        double by = segment.getBy();
+        double dx = segment.getP0x() - x;
+        double dy = segment.getP0y() - y;
+
+        double c3 = 2 * (ax * ax + ay * ay);
+        double c2 = 3 * (ax * bx + ay * by);
+        double c1 = (bx * bx + by * by) + 2 * (ax * dx + ay * dy);
+        double c0 = bx * dx + by * dy;
+
+        double scale = Math.abs(c3) + Math.abs(c2) + Math.abs(c1) + Math.abs(c0);
+        double root0 = Double.NaN;
+        double root1 = Double.NaN;
+        double root2 = Double.NaN;
+
+        if(c3 > EPSILON * scale){
+            double a = c2 / c3;
+            double b = c1 / c3;
+            double c = c0 / c3;
+
+            double q = (3 * b - a * a) / 9;
+            double r = (9 * a * b - 27 * c - 2 * a * a * a) / 54;
+            double discriminant = q * q * q + r * r;
+
+            if(discriminant > 0){
+                double sqrt = Math.sqrt(discriminant);
+                root0 = Math.cbrt(r + sqrt) + Math.cbrt(r - sqrt) - a / 3;
+            }else{
+                double theta = Math.acos(Math.max(-1, Math.min(1, r / Math.sqrt(-q * q * q))));
+                double radius = 2 * Math.sqrt(-q);
+
+                root0 = radius * Math.cos(theta / 3) - a / 3;
+                root1 = radius * Math.cos((theta + 2 * Math.PI) / 3) - a / 3;
+                root2 = radius * Math.cos((theta + 4 * Math.PI) / 3) - a / 3;
+            }
+        }else if(Math.abs(c1) > EPSILON * scale){
+            //The curve is a straight line with evenly spaced points (a = 0), so the derivative is linear
+            root0 = -c0 / c1;
+        }
+
+        double bestTime = distanceSquared(segment, 1, x, y) < distanceSquared(segment, 0, x, y) ? 1 : 0;
+        bestTime = closerTime(segment, x, y, bestTime, root0, c3, c2, c1, c0);
+        bestTime = closerTime(segment, x, y, bestTime, root1, c3, c2, c1, c0);
+        bestTime = closerTime(segment, x, y, bestTime, root2, c3, c2, c1, c0);
+
+        return bestTime;
+    }
+
+    /**
+     * @return the root (after polishing) if it is on the curve and closer to the point than the best time,
+     * otherwise the best time
+     */
+    private static double closerTime(BezierSegment segment, double x, double y, double bestTime, double root,
+                                     double c3, double c2, double c1, double c0){
+        if(!(root > 0 && root < 1))
+            return bestTime;
+
+        double time = polish(root, c3, c2, c1, c0);
+
+        return distanceSquared(segment, time, x, y) < distanceSquared(segment, bestTime, x, y) ? time : bestTime;
+    }
+
+    /**
+     * One Newton step on the cubic, to remove the error from the closed form
+     */
+    private static double polish(double t, double c3, double c2, double c1, double c0){
+        double value = ((c3 * t + c2) * t + c1) * t + c0;
+        double derivative = (3 * c3 * t + 2 * c2) * t + c1;
+
+        if(derivative == 0)
+            return t;
+
+        double polished = t - value / derivative;
+        return polished >= 0 && polished <= 1 ? polished : t;
+    }
+
+    private static double distanceSquared(BezierSegment segment, double time, double x, double y){
+        double dx = segment.getX(time) - x;
+        double dy = segment.getY(time) - y;
+
+        return dx * dx + dy * dy;
+    }
+}
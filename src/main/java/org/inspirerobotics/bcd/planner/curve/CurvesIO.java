@@ -23,9 +23,7 @@ public class CurvesIO {
 
     public static void open(File file, Gui gui) {
         try {
-            String data = Files.readString(file.toPath());
-
-            List<QBezierCurve> curves = parseCurves(data);
+            List<QBezierCurve> curves = load(file);
             Platform.runLater(() -> gui.getCurves().setAll(curves));
         } catch(IOException | RuntimeException e) {
             Gui.showError("Failed to open the file!", e);
@@ -33,6 +31,13 @@ public class CurvesIO {
         }
     }
 
+    /**
+     * Reads the curves from a save file without touching the GUI
+     */
+    public static List<QBezierCurve> load(File file) throws IOException {
+        return parseCurves(Files.readString(file.toPath()));
+    }
+
     private static List<QBezierCurve> parseCurves(String data) {
         var gson = new Gson();
         var curves = new ArrayList<QBezierCurve>();
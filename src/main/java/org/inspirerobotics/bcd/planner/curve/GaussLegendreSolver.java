@@ -0,0 +1,114 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+/**
+ * An Arc Length Solver that integrates the speed of the curve (|B'(t)|) from 0 to 1
+ * using fixed-order Gauss-Legendre quadrature. The nodes and weights are calculated once
+ * when the solver is created, so solving a curve does not allocate anything.
+ *<p></p>
+ * Source: <a href="https://raphlinus.github.io/curves/2018/12/28/bezier-arclength.html#gauss-legendre-quadrature">
+ *     Raph Levien's Blog Post</a>
+ */
+public class GaussLegendreSolver implements ArcLengthSolver {
+
+    public static final int MIN_ORDER = 3;
+    public static final int MAX_ORDER = 24;
+    private static final int MAX_ITERATIONS = 100;
+
+    private final int order;
+    private final double[] nodes;
+    private final double[] weights;
+
+    public GaussLegendreSolver(int order) {
+        if(order < MIN_ORDER || order > MAX_ORDER)
+            throw new IllegalArgumentException("Order must be between " + MIN_ORDER + " and " + MAX_ORDER + ": " + order);
+
+        this.order = order;
+        this.nodes = new double[order];
+        this.weights = new double[order];
+
+        calcNodesAndWeights();
+    }
+
+    /**
+     * Finds the roots of the Legendre polynomial of degree {@link #order} using Newton's method,
+     * stopping once the step is tiny compared to the root (or after {@link #MAX_ITERATIONS}), and then maps the nodes and weights from [-1, 1] onto [0, 1]
+     */
+    private void calcNodesAndWeights() {
+        for(int i = 0; i < order; i++){
+            double x = Math.cos(Math.PI * (i + .75) / (order + .5));
+            double derivative;
+            double delta;
+            int iterations = 0;
+
+            do{
+                double p0 = 1;
+                double p1 = x;
+
+                for(int n = 2; n <= order; n++){
+                    double p2 = ((2 * n - 1) * x * p1 - (n - 1) * p0) / n;
+                    p0 = p1;
+                    p1 = p2;
+                }
+
+                derivative = order * (x * p1 - p0) / (x * x - 1);
+                delta = p1 / derivative;
+                x -= delta;
+                iterations++;
+            }while(Math.abs(delta) > 1e-15 * Math.abs(x) && iterations < MAX_ITERATIONS);
+
+            nodes[i] = (1 - x) / 2;
+            weights[i] = 1 / ((1 - x * x) * derivative * derivative);
+        }
+    }
+
+    @Override
+    public double solve(QBezierCurve curve) {
+        return lengthAt(curve, 1);
+    }
+
+    @Override
+    public double solve(BezierSegment segment) {
+        return lengthBetween(segment, 0, 1);
+    }
+
+    /**
+     * @return the length of the curve from t = 0 to the passed time
+     */
+    public double lengthAt(QBezierCurve curve, double time) {
+        return lengthBetween(curve, 0, time);
+    }
+
+    /**
+     * @return the length of the curve from t = startTime to t = endTime
+     */
+    public double lengthBetween(QBezierCurve curve, double startTime, double endTime) {
+        return lengthBetween(curve.getSegment(), startTime, endTime);
+    }
+
+    /**
+     * @return the length of the segment from t = startTime to t = endTime
+     */
+    public double lengthBetween(BezierSegment segment, double startTime, double endTime) {
+        double duration = endTime - startTime;
+        double result = 0;
+
+        for(int i = 0; i < order; i++){
+            double t = startTime + (nodes[i] * duration);
+            double dx = segment.getDerivativeX(t);
+            double dy = segment.getDerivativeY(t);
+
+            result += weights[i] * Math.sqrt(dx * dx + dy * dy);
+        }
+
+        return result * duration;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public String getName() {
+        return "Gauss-Legendre (n=" + order + ")";
+    }
+}
@@ -1,7 +1,5 @@
 package org.inspirerobotics.bcd.planner.curve;
 
-import javafx.geometry.Point2D;
-
 /**
  * A solver based on an integration from the internet.
  * The code was originally written in C, but was converted into Java.
@@ -15,24 +13,40 @@ public class IntegrationSolver implements ArcLengthSolver{
 
     @Override
     public double solve(QBezierCurve curve) {
-        Point2D p0 = curve.getStart();
-        Point2D p1 = curve.getControlPoint();
-        Point2D p2 = curve.getEnd();
+        return solve(curve.getSegment());
+    }
+
+    @Override
+    public double solve(BezierSegment segment) {
+        return solve(segment.getA(), segment.getB(), segment.getC());
+    }
 
-        Point2D a = new Point2D(
-            p0.getX() + ((-2 * p1.getX()) + p2.getX()),
-                p0.getY() + ((-2 *p1.getY()) + p2.getY())
-        );
+    @Override
+    public void solveAll(double[] p0x, double[] p0y, double[] p1x, double[] p1y,
+                         double[] p2x, double[] p2y, double[] out) {
+        for(int i = 0; i < out.length; i++){
+            out[i] = solve(p0x[i], p0y[i], p1x[i], p1y[i], p2x[i], p2y[i]);
+        }
+    }
+
+    static double solve(double p0x, double p0y, double p1x, double p1y, double p2x, double p2y){
+        double ax = p0x + ((-2 * p1x) + p2x);
+        double ay = p0y + ((-2 * p1y) + p2y);
 
-        Point2D b = new Point2D(
-                (2 * p1.getX()) - (2*p0.getX()),
-                (2 * p1.getY()) - (2*p0.getY())
-        );
+        double bx = (2 * p1x) - (2 * p0x);
+        double by = (2 * p1y) - (2 * p0y);
 
-        double A = 4*(a.getX()*a.getX() + a.getY()*a.getY());
-        double B = 4*(a.getX()*b.getX() + a.getY()*b.getY());
-        double C = b.getX()*b.getX() + b.getY()*b.getY();
+        double A = 4*(ax*ax + ay*ay);
+        double B = 4*(ax*bx + ay*by);
+        double C = bx*bx + by*by;
+
+        return solve(A, B, C);
+    }
 
+    /**
+     * Solves the length from the coefficients of the squared speed, |B'(t)|<sup>2</sup> = At<sup>2</sup> + Bt + C
+     */
+    static double solve(double A, double B, double C){
         double Sabc = 2*Math.sqrt(A+B+C);
         double A_2 = Math.sqrt(A);
         double A_32 = 2*A*A_2;
@@ -0,0 +1,75 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+/**
+ * Finds the time (t) on a curve at a given length from the start of the curve. It uses Newton's
+ * method on L(t) - s, where L(t) is the closed form length from the {@link IntegrationSolver}
+ * evaluated from 0 to t, and L'(t) is the speed of the curve |B'(t)|.
+ *<p></p>
+ * The answer is always kept inside a bracket, so when a Newton step leaves the bracket (or the
+ * curve has no speed) the solver bisects instead. Curves where the closed form breaks down
+ * (nearly straight or folded back on themselves) use Gauss-Legendre quadrature for L(t),
+ * see {@link BezierSegment#lengthAt(double)}.
+ * Unlike the {@link ArcLengthTable} nothing is stored, so it is best for one-off queries.
+ */
+public class InverseArcLengthSolver {
+
+    private static final int MAX_ITERATIONS = 50;
+    private static final double EPSILON = 1e-12;
+
+    /**
+     * @return the time on the curve where the length from the start equals the passed length.
+     * Lengths outside of the curve are clamped to 0 and 1
+     */
+    public double parameterAtLength(QBezierCurve curve, double length){
+        return parameterAtLength(curve.getSegment(), length);
+    }
+
+    public double parameterAtLength(BezierSegment segment, double length){
+        double totalLength = segment.getLength();
+
+        if(!(length > 0))
+            return 0;
+
+        if(length >= totalLength)
+            return 1;
+
+        double tolerance = EPSILON * Math.max(1, totalLength);
+        double low = 0;
+        double high = 1;
+        double t = length / totalLength;
+
+        for(int i = 0; i < MAX_ITERATIONS; i++){
+            double error = segment.lengthAt(t) - length;
+
+            if(Math.abs(error) <= tolerance)
+                return t;
+
+            if(error > 0){
+                high = t;
+            }else{
+                low = t;
+            }
+
+            double speed = segment.getSpeed(t);
+            double next = t - (error / speed);
+
+            if(!(next > low && next < high)){
+                next = (low + high) / 2;
+            }
+
+            if(next == t)
+                return t;
+
+            t = next;
+        }
+
+        return t;
+    }
+
+    /**
+     * @return the length of the curve from t = 0 to the passed time
+     */
+    public double lengthAt(QBezierCurve curve, double time){
+        return curve.getSegment().lengthAt(time);
+    }
+}
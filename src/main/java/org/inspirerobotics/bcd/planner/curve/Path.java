@@ -0,0 +1,182 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A route made of an ordered list of curves, where the distance along the path continues
+ * from one curve to the next. The lengths of the curves are kept in a Fenwick tree (binary indexed tree),
+ * so finding the curve at a distance, the distance at the start of a curve, and updating the
+ * length of one curve are all O(log n).
+ *<p></p>
+ * The path listens to the curves and updates the length of a curve when its points change. If the
+ * list of curves is an {@link ObservableList} the path is also rebuilt when curves are added or removed.
+ * Call {@link #dispose()} when the path is no longer needed to remove the listeners. The path is not
+ * thread safe, it should only be used from the thread that edits the curves (normally the UI thread).
+ */
+public class Path {
+
+    private final List<QBezierCurve> curves;
+    private final ListChangeListener<QBezierCurve> listListener = change -> rebuild();
+    private final List<ChangeListener<BezierSegment>> curveListeners = new ArrayList<>();
+    private final List<QBezierCurve> listenedCurves = new ArrayList<>();
+
+    /**
+     * lengths[i] is the length of curve i, and tree is the Fenwick tree (1 based) of the lengths
+     */
+    private double[] lengths = new double[0];
+    private double[] tree = new double[1];
+    private int highestPowerOfTwo;
+
+    public Path(List<QBezierCurve> curves) {
+        this.curves = curves;
+
+        if(curves instanceof ObservableList){
+            ((ObservableList<QBezierCurve>) curves).addListener(listListener);
+        }
+
+        rebuild();
+    }
+
+    private void rebuild() {
+        removeCurveListeners();
+
+        int size = curves.size();
+        lengths = new double[size];
+        tree = new double[size + 1];
+        highestPowerOfTwo = Integer.highestOneBit(Math.max(1, size));
+
+        for(int i = 0; i < size; i++){
+            QBezierCurve curve = curves.get(i);
+            int index = i;
+            ChangeListener<BezierSegment> listener = (observable, oldSegment, segment) -> updateLength(index, segment);
+
+            curve.segmentProperty().addListener(listener);
+            curveListeners.add(listener);
+            listenedCurves.add(curve);
+
+            lengths[i] = curve.getLength();
+            tree[i + 1] = lengths[i];
+        }
+
+        //Builds the Fenwick tree in O(n) by pushing each node into its parent
+        for(int i = 1; i <= size; i++){
+            int parent = i + (i & -i);
+
+            if(parent <= size){
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void updateLength(int index, BezierSegment segment) {
+        double delta = segment.getLength() - lengths[index];
+        lengths[index] = segment.getLength();
+
+        for(int i = index + 1; i < tree.length; i += i & -i){
+            tree[i] += delta;
+        }
+    }
+
+    private void removeCurveListeners() {
+        for(int i = 0; i < curveListeners.size(); i++){
+            listenedCurves.get(i).segmentProperty().removeListener(curveListeners.get(i));
+        }
+
+        curveListeners.clear();
+        listenedCurves.clear();
+    }
+
+    public void dispose() {
+        if(curves instanceof ObservableList){
+            ((ObservableList<QBezierCurve>) curves).removeListener(listListener);
+        }
+
+        removeCurveListeners();
+    }
+
+    /**
+     * @return the distance along the path at the start of the curve at the passed index. Passing
+     * the number of curves returns the length of the path
+     */
+    public double getStartDistance(int index){
+        double result = 0;
+
+        for(int i = index; i > 0; i -= i & -i){
+            result += tree[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the index of the curve at the passed distance along the path. Distances before the path
+     * return the first curve and distances past the end return the last curve (or -1 if there are no curves)
+     */
+    public int getCurveIndex(double distance){
+        int index = 0;
+        double remaining = distance;
+
+        for(int step = highestPowerOfTwo; step > 0; step >>= 1){
+            int next = index + step;
+
+            if(next < tree.length && tree[next] <= remaining){
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+
+        return Math.min(index, lengths.length - 1);
+    }
+
+    /**
+     * @return the location (curve and time on that curve) at the passed distance along the path
+     */
+    public Location locate(double distance){
+        int index = getCurveIndex(distance);
+
+        if(index < 0)
+            return null;
+
+        double curveDistance = distance - getStartDistance(index);
+        double time = curves.get(index).getArcLengthTable().timeAtDistance(curveDistance);
+
+        return new Location(index, time, curveDistance);
+    }
+
+    public double getLength(){
+        return getStartDistance(lengths.length);
+    }
+
+    public double getLength(int index){
+        return lengths[index];
+    }
+
+    public int size(){
+        return lengths.length;
+    }
+
+    public QBezierCurve getCurve(int index){
+        return curves.get(index);
+    }
+
+    /**
+     * A point on the path: the index of the curve, the time on that curve and
+     * the distance from the start of that curve
+     */
+    public static class Location{
+        public final int curveIndex;
+        public final double time;
+        public final double curveDistance;
+
+        public Location(int curveIndex, double time, double curveDistance) {
+            this.curveIndex = curveIndex;
+            this.time = time;
+            this.curveDistance = curveDistance;
+        }
+    }
+}
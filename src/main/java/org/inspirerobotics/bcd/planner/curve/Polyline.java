@@ -0,0 +1,53 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+/**
+ * An immutable list of points connected by straight lines, created by the {@link CurveFlattener}.
+ * The points are in feet, and are stored as separate arrays of x and y coordinates so they can be
+ * passed directly to {@link javafx.scene.canvas.GraphicsContext#strokePolyline(double[], double[], int)}.
+ */
+public final class Polyline {
+
+    private final double[] xs;
+    private final double[] ys;
+
+    Polyline(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    public double getX(int index){
+        return xs[index];
+    }
+
+    public double getY(int index){
+        return ys[index];
+    }
+
+    /**
+     * Note: the array is shared, do not modify it
+     */
+    public double[] getXs() {
+        return xs;
+    }
+
+    /**
+     * Note: the array is shared, do not modify it
+     */
+    public double[] getYs() {
+        return ys;
+    }
+
+    public int size(){
+        return xs.length;
+    }
+
+    public double getLength(){
+        double result = 0;
+
+        for(int i = 1; i < xs.length; i++){
+            result += Math.hypot(xs[i] - xs[i - 1], ys[i] - ys[i - 1]);
+        }
+
+        return result;
+    }
+}
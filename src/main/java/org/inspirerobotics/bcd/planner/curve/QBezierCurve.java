@@ -1,5 +1,7 @@
 package org.inspirerobotics.bcd.planner.curve;
 
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.geometry.Point2D;
 import javafx.scene.paint.Color;
 
@@ -19,6 +21,17 @@ public class QBezierCurve {
     private Point2D end = new Point2D(0, 0);
     private Point2D controlPoint = new Point2D(0, 0);
 
+    /**
+     * The immutable primitive version of the points. It is replaced every time a point changes,
+     * and caches the data derived from the points (length, bounds, arc length table)
+     */
+    private volatile BezierSegment segment = new BezierSegment(0, 0, 0, 0, 0, 0);
+
+    /**
+     * Only created when something listens for changes to the curve
+     */
+    private ReadOnlyObjectWrapper<BezierSegment> segmentProperty;
+
     public QBezierCurve() {
         this("Curve" + (++count));
     }
@@ -52,14 +65,64 @@ public class QBezierCurve {
 
     public void setControlPoint(Point2D controlPoint) {
         this.controlPoint = controlPoint;
+        updateSegment();
     }
 
     public void setEnd(Point2D end) {
         this.end = end;
+        updateSegment();
     }
 
     public void setStart(Point2D start) {
         this.start = start;
+        updateSegment();
+    }
+
+    private void updateSegment() {
+        segment = new BezierSegment(start.getX(), start.getY(), controlPoint.getX(), controlPoint.getY(),
+                end.getX(), end.getY());
+
+        if(segmentProperty != null){
+            segmentProperty.set(segment);
+        }
+    }
+
+    /**
+     * @return a property that changes every time any of the points of the curve change.
+     * Note: the listeners are called on the thread that changed the curve
+     */
+    public ReadOnlyObjectProperty<BezierSegment> segmentProperty() {
+        if(segmentProperty == null){
+            segmentProperty = new ReadOnlyObjectWrapper<>(this, "segment", segment);
+        }
+
+        return segmentProperty.getReadOnlyProperty();
+    }
+
+    /**
+     * @return the arc length parameterization of this curve. The table is built lazily
+     * and is rebuilt after any of the points change
+     */
+    public ArcLengthTable getArcLengthTable() {
+        return segment.getArcLengthTable();
+    }
+
+    /**
+     * @return the current points of the curve as an immutable segment
+     */
+    public BezierSegment getSegment() {
+        return segment;
+    }
+
+    /**
+     * @return a number that changes every time any of the points of the curve change
+     */
+    public long getVersion() {
+        return segment.getVersion();
+    }
+
+    public double getLength() {
+        return segment.getLength();
     }
 
     public Point2D getControlPoint() {
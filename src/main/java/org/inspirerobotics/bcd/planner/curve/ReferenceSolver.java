@@ -0,0 +1,47 @@
+package org.inspirerobotics.bcd.planner.curve;
+
+/**
+ * A slow, but very accurate Arc Length Solver that is used as the reference when measuring
+ * the error of the other solvers. The curve is split into many panels and each panel is integrated
+ * with 24 point Gauss-Legendre quadrature. The speed of the curve has a kink at its minimum
+ * when the curve folds back on itself, so the curve is also split there.
+ */
+public class ReferenceSolver implements ArcLengthSolver {
+
+    private static final int PANELS = 64;
+
+    private final GaussLegendreSolver quadrature = new GaussLegendreSolver(GaussLegendreSolver.MAX_ORDER);
+
+    @Override
+    public double solve(QBezierCurve curve) {
+        return solve(curve.getSegment());
+    }
+
+    @Override
+    public double solve(BezierSegment segment) {
+        double slowest = segment.getA() > 0 ? -segment.getB() / (2 * segment.getA()) : Double.NaN;
+
+        if(slowest > 0 && slowest < 1){
+            return solve(segment, 0, slowest) + solve(segment, slowest, 1);
+        }
+
+        return solve(segment, 0, 1);
+    }
+
+    private double solve(BezierSegment segment, double startTime, double endTime){
+        double panelLength = (endTime - startTime) / PANELS;
+        double result = 0;
+
+        for(int i = 0; i < PANELS; i++){
+            double panelStart = startTime + (i * panelLength);
+            result += quadrature.lengthBetween(segment, panelStart, panelStart + panelLength);
+        }
+
+        return result;
+    }
+
+    @Override
+    public String getName() {
+        return "Reference";
+    }
+}
@@ -1,167 +1,106 @@
 package org.inspirerobotics.bcd.planner.curve;
 
-import javafx.geometry.Point2D;
+import org.inspirerobotics.bcd.planner.simulation.FollowerType;
+import org.inspirerobotics.bcd.planner.simulation.SimulationEngine;
+import org.inspirerobotics.bcd.planner.simulation.SimulationRunner;
+import org.inspirerobotics.bcd.planner.simulation.SimulationState;
+import org.inspirerobotics.bcd.planner.simulation.TelemetryPlayer;
+import org.inspirerobotics.bcd.planner.simulation.TelemetryRecorder;
 import org.inspirerobotics.bcd.planner.ui.Gui;
 
 /**
- * A simulation of a Quadratic Bezier Curve. It tracks the distance
- * the robot has travelled and then finds the time by iterating until the distance is found.
+ * Shows a {@link SimulationEngine} in the GUI. The engine runs on its own thread through a
+ * {@link SimulationRunner}, so the simulation does not depend on the frame rate and a slow frame
+ * does not disturb it. The GUI only reads the latest snapshot each frame.
+ *<p></p>
+ * Every step is recorded with a {@link TelemetryRecorder}, so the run can be replayed with the
+ * {@link TelemetryPlayer} while it is running or after it has finished.
+ *<p></p>
+ * The robot follows the curves with the {@link FollowerType} picked in the GUI, which is applied when the
+ * simulation is started.
  */
 public class Simulation {
 
     private final Gui gui;
 
-    private boolean running;
-    private double distance = 0;
-    private int currentCurve = 0;
-    private double currentBezierTime;
-
-    private Point2D robotPos;
-
-    private long timeRan;
-    private long lastTimeMs;
+    private SimulationRunner runner;
+    private TelemetryPlayer player;
+    private boolean replaying;
+    private FollowerType followerType = FollowerType.DEFAULT;
 
     public Simulation(Gui gui) {
         this.gui = gui;
-
-        this.currentCurve = 0;
-        this.distance = 0.0;
     }
 
     public void start(){
-        running = true;
-        distance = 0.0;
-        currentCurve = 0;
-        timeRan = 0;
-        currentBezierTime = 0;
-        lastTimeMs = System.currentTimeMillis();
-
-        robotPos = getCurrentPoint();
-    }
-
-    public void tick(long timerTimeNano){
-        if(!running)
-            return;
+        stop();
 
-        double deltaPos = getDeltaPosition();
-        double angle = getAngle();
+        SimulationEngine engine = new SimulationEngine(gui.getCurves(), gui.getTrajectory(), SimulationEngine.DEFAULT_DT);
+        followerType.apply(engine, gui.getRobotModel());
+        engine.reset();
 
-        double deltaX = Math.cos(angle) * deltaPos;
-        double deltaY = Math.sin(angle) * deltaPos;
+        TelemetryRecorder recorder = new TelemetryRecorder();
 
-        distance += Math.sqrt(Math.pow(deltaX, 2) + Math.pow(deltaY, 2));
-        robotPos = robotPos.add(deltaX, deltaY);
-        currentBezierTime = calcTimeAtDistance(distance);
-
-        if(getTime() > 1.0){
-            gotoNextCurve();
-        }
-
-        timeRan += System.currentTimeMillis() - lastTimeMs;
-        lastTimeMs = System.currentTimeMillis();
+        player = new TelemetryPlayer(recorder, engine.getSegments());
+        replaying = false;
+        runner = new SimulationRunner(engine, recorder);
+        runner.start();
     }
 
-    private double getDeltaPosition() {
-        double deltaTime = (System.currentTimeMillis() - lastTimeMs) / 1000.0;
-        double robotSpeedFeetPerSec = 5;
-        return robotSpeedFeetPerSec * deltaTime;
-    }
-
-    private void gotoNextCurve() {
-        currentCurve++;
-        distance = 0.0;
-        lastTimeMs = System.currentTimeMillis();
-
-        if(retrieveCurve() == null){
-            running = false;
+    public void stop(){
+        if(runner != null){
+            runner.stop();
         }
     }
 
-    public Point2D getCurrentPoint(){
-        QBezierCurve curve = retrieveCurve();
-
-        if(curve == null)
-            return new Point2D(0, 0);
-
-        double time = getTime();
-        double x = calc(curve.getStart().getX(), curve.getControlPoint().getX(), curve.getEnd().getX(), time);
-        double y = calc(curve.getStart().getY(), curve.getControlPoint().getY(), curve.getEnd().getY(), time);
-
-        return new Point2D(x, y);
-    }
-
-    private double calcTimeAtDistance(double targetDistance){
-        QBezierCurve curve = retrieveCurve();
-
-        Point2D prev = ArcLengthSolver.calc(curve, 0.0);
-        double currDistance = 0;
-        double dt = .001;
-
-        for(double t = 0; t < 1; t += dt){
-            Point2D curr = ArcLengthSolver.calc(curve, t);
-
-            currDistance += curr.distance(prev);
+    /**
+     * @return the state to draw at the passed {@link System#nanoTime()}, or null if the simulation has not been started.
+     * While replaying this is the state from the recording
+     */
+    public SimulationState getState(long nanoTime){
+        if(runner == null)
+            return null;
 
-            if(currDistance >= targetDistance){
-                return t;
-            }
+        if(replaying){
+            SimulationState state = player.getState(nanoTime);
 
-            prev = curr;
+            if(state != null)
+                return state;
         }
 
-        return currDistance;
-    }
-
-    private double calc(double p0, double p1, double p2, double time){
-        double iTime = 1 -  time;
-
-        return (Math.pow(iTime, 2) * p0) + (2 * iTime * time * p1)  + (Math.pow(time, 2) * p2);
+        return runner.getSnapshot().stateAt(nanoTime);
     }
 
-    private QBezierCurve retrieveCurve() {
-        if(currentCurve >= gui.getCurves().size())
-            return null;
-        return gui.getCurves().get(currentCurve);
+    /**
+     * @return the player for the recording of the last run, or null if the simulation has not been started
+     */
+    public TelemetryPlayer getPlayer() {
+        return player;
     }
 
-    private double calcDerivative(double p0, double p1, double p2, double time){
-        return (2 * (1 - time) * (p1 - p0)) + (2 * time * (p2 - p1));
+    /**
+     * @param replaying true to show the recording from the {@link #getPlayer() player} instead of the live simulation
+     */
+    public void setReplaying(boolean replaying) {
+        this.replaying = replaying && player != null;
     }
 
-    private double calcAngle(QBezierCurve c, double time){
-        double velX = calcDerivative(c.getStart().getX(), c.getControlPoint().getX(), c.getEnd().getX(), time);
-        double velY = calcDerivative(c.getStart().getY(), c.getControlPoint().getY(), c.getEnd().getY(), time);
-
-        return Math.atan2(velY, velX);
+    /**
+     * @param followerType how the robot follows the curves, used the next time the simulation is started
+     */
+    public void setFollowerType(FollowerType followerType) {
+        this.followerType = followerType;
     }
 
-    public double getAngle(){
-        if(retrieveCurve() == null)
-            return Double.NaN;
-
-        QBezierCurve curve = retrieveCurve();
-        double time = getTime();
-
-        return calcAngle(curve, time);
+    public FollowerType getFollowerType() {
+        return followerType;
     }
 
-    public double getTime(){
-        return currentBezierTime;
+    public boolean isReplaying() {
+        return replaying;
     }
 
     public boolean isRunning() {
-        return running;
-    }
-
-    public int getCurrentCurve() {
-        return currentCurve;
-    }
-
-    public long getTimeRan() {
-        return timeRan;
-    }
-
-    public Point2D getRobotPos() {
-        return robotPos;
+        return runner != null && runner.getSnapshot().getCurrent().running;
     }
 }
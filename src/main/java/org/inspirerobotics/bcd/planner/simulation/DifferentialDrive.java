@@ -0,0 +1,72 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+/**
+ * A kinematic model of a differential (tank) drive robot. A {@link DriveCommand} is turned into the speed of
+ * the left and right wheels, which are limited to the top speed of the wheels, and the pose of the robot is
+ * moved along the arc that the wheels drive. Distances are in feet and angles in radians.
+ */
+public class DifferentialDrive {
+
+    private final double trackWidth;
+    private final double maxWheelSpeed;
+
+    /**
+     * @param trackWidth the distance between the left and right wheels
+     * @param maxWheelSpeed the top speed of each wheel (ft/s)
+     */
+    public DifferentialDrive(double trackWidth, double maxWheelSpeed) {
+        if(!(trackWidth > 0) || !(maxWheelSpeed > 0))
+            throw new IllegalArgumentException("The track width and max wheel speed must be positive");
+
+        this.trackWidth = trackWidth;
+        this.maxWheelSpeed = maxWheelSpeed;
+    }
+
+    /**
+     * Finds the wheel speeds for the command as {left, right}. If either wheel would be faster than the
+     * max wheel speed both wheels are slowed down by the same ratio, so the robot still drives the same arc
+     */
+    public void toWheelSpeeds(DriveCommand command, double[] out){
+        double left = command.velocity - (command.angularVelocity * trackWidth / 2);
+        double right = command.velocity + (command.angularVelocity * trackWidth / 2);
+        double fastest = Math.max(Math.abs(left), Math.abs(right));
+
+        if(fastest > maxWheelSpeed){
+            left *= maxWheelSpeed / fastest;
+            right *= maxWheelSpeed / fastest;
+        }
+
+        out[0] = left;
+        out[1] = right;
+    }
+
+    /**
+     * Moves the pose ({x, y, heading}) by the distance each wheel travelled. The robot drives along an
+     * arc, so this is exact for any step size as long as the wheel speeds do not change during the step
+     */
+    public void move(double leftDistance, double rightDistance, double[] pose){
+        double distance = (leftDistance + rightDistance) / 2;
+        double deltaHeading = (rightDistance - leftDistance) / trackWidth;
+        double heading = pose[2];
+
+        if(Math.abs(deltaHeading) < 1e-9){
+            pose[0] += distance * Math.cos(heading + deltaHeading / 2);
+            pose[1] += distance * Math.sin(heading + deltaHeading / 2);
+        }else{
+            double radius = distance / deltaHeading;
+
+            pose[0] += radius * (Math.sin(heading + deltaHeading) - Math.sin(heading));
+            pose[1] -= radius * (Math.cos(heading + deltaHeading) - Math.cos(heading));
+        }
+
+        pose[2] = heading + deltaHeading;
+    }
+
+    public double getTrackWidth() {
+        return trackWidth;
+    }
+
+    public double getMaxWheelSpeed() {
+        return maxWheelSpeed;
+    }
+}
@@ -0,0 +1,23 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+/**
+ * The output of a {@link FollowerController}: how fast the robot should drive and turn.
+ * This is reused between steps, so the controllers do not allocate anything.
+ */
+public class DriveCommand {
+
+    /**
+     * The forward velocity in ft/s
+     */
+    public double velocity;
+
+    /**
+     * The turn rate in radians per second, counter-clockwise is positive
+     */
+    public double angularVelocity;
+
+    public void set(double velocity, double angularVelocity){
+        this.velocity = velocity;
+        this.angularVelocity = angularVelocity;
+    }
+}
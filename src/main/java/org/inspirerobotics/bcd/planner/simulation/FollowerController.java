@@ -0,0 +1,33 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.trajectory.Trajectory;
+
+/**
+ * A controller that steers the robot along the path, like the one running on the real robot.
+ * It is called at its own rate by the {@link SimulationEngine}, and the command is held between calls.
+ * Distances are in feet, times in seconds and angles in radians.
+ */
+public interface FollowerController {
+
+    /**
+     * Calculates how the robot should drive for the next controller step. This should not allocate anything
+     *
+     * @param x the x position of the robot
+     * @param y the y position of the robot
+     * @param heading the heading of the robot
+     * @param reference where the robot should be at this time, from the trajectory
+     * @param lookahead the path, already updated with the position of the robot
+     * @param out the command for the robot
+     */
+    void calculate(double x, double y, double heading, Trajectory.State reference, PathLookahead lookahead,
+                   DriveCommand out);
+
+    /**
+     * Clears any state before a new run
+     */
+    default void reset(){
+
+    }
+
+    String getName();
+}
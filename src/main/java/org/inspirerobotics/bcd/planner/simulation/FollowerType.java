@@ -0,0 +1,63 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.trajectory.RobotModel;
+
+import java.util.function.Supplier;
+
+/**
+ * The ways the robot can follow the curves in the simulation
+ */
+public enum FollowerType {
+    IDEAL("Ideal", () -> null),
+    PURE_PURSUIT("Pure Pursuit", PurePursuitController::new),
+    RAMSETE("Ramsete", RamseteController::new);
+
+    /**
+     * The follower used by the simulation and the Monte Carlo runner until another one is picked.
+     * The robot moves exactly along the curves, like the simulation did before there were followers
+     */
+    public static final FollowerType DEFAULT = IDEAL;
+
+    /**
+     * The default distance between the wheels (ft)
+     */
+    public static final double DEFAULT_TRACK_WIDTH = 2;
+
+    /**
+     * The default time between runs of the controller in seconds (200 Hz)
+     */
+    public static final double DEFAULT_CONTROLLER_PERIOD = .005;
+
+    /**
+     * How much faster the wheels can drive than the top speed of the trajectory, so the controller has room to correct
+     */
+    private static final double WHEEL_SPEED_MARGIN = 1.25;
+
+    private final String displayName;
+    private final Supplier<FollowerController> factory;
+
+    FollowerType(String displayName, Supplier<FollowerController> factory) {
+        this.displayName = displayName;
+        this.factory = factory;
+    }
+
+    /**
+     * Sets the engine to follow the curves this way, with the default drive for the model
+     */
+    public void apply(SimulationEngine engine, RobotModel model){
+        FollowerController controller = factory.get();
+
+        if(controller == null){
+            engine.setFollower(null, null, 0);
+            return;
+        }
+
+        DifferentialDrive drive = new DifferentialDrive(DEFAULT_TRACK_WIDTH, model.getMaxVelocity() * WHEEL_SPEED_MARGIN);
+        engine.setFollower(controller, drive, DEFAULT_CONTROLLER_PERIOD);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
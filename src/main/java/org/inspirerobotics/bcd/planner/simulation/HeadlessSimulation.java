@@ -0,0 +1,66 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.curve.CurvesIO;
+import org.inspirerobotics.bcd.planner.curve.QBezierCurve;
+import org.inspirerobotics.bcd.planner.trajectory.RobotModel;
+import org.inspirerobotics.bcd.planner.trajectory.Trajectory;
+import org.inspirerobotics.bcd.planner.trajectory.TrajectoryGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Runs the simulation of a save file without the GUI, as fast as possible, and prints the result.
+ * If a number of rollouts is passed, a {@link MonteCarloSimulation} is run instead.
+ *<p></p>
+ * Usage: HeadlessSimulation &lt;save file&gt; [dt] [rollouts]
+ */
+public class HeadlessSimulation {
+
+    /**
+     * Stops simulations that never finish, in seconds
+     */
+    private static final double MAX_TIME = 600;
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1 || args.length > 3){
+            System.err.println("Usage: HeadlessSimulation <save file> [dt] [rollouts]");
+            System.exit(1);
+        }
+
+        double dt = args.length > 1 ? Double.parseDouble(args[1]) : SimulationEngine.DEFAULT_DT;
+        List<QBezierCurve> curves = CurvesIO.load(new File(args[0]));
+
+        if(args.length > 2){
+            runMonteCarlo(curves, dt, Integer.parseInt(args[2]));
+            return;
+        }
+
+        Trajectory trajectory = new TrajectoryGenerator(RobotModel.DEFAULT).generate(curves);
+        SimulationEngine engine = new SimulationEngine(curves, trajectory, dt);
+
+        long start = System.nanoTime();
+        long steps = engine.run(MAX_TIME);
+        double wallTimeMs = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("Simulated %.3f s in %d steps of %.4f s (%.2f ms)%n", engine.getTime(), steps, dt, wallTimeMs);
+        System.out.printf("Final pose: x=%.4f ft, y=%.4f ft, heading=%.2f deg%n",
+                engine.getX(), engine.getY(), Math.toDegrees(engine.getHeading()));
+        System.out.printf("Curve: %d, t=%.4f, path distance=%.4f ft%n",
+                engine.getCurveIndex(), engine.getCurveTime(), engine.getPathDistance());
+    }
+
+    private static void runMonteCarlo(List<QBezierCurve> curves, double dt, int rollouts){
+        MonteCarloSimulation monteCarlo = new MonteCarloSimulation(RobotModel.DEFAULT);
+        monteCarlo.setDt(dt);
+        monteCarlo.setRollouts(rollouts);
+
+        long start = System.nanoTime();
+        MonteCarloSimulation.Result result = monteCarlo.run(curves);
+        double wallTimeMs = (System.nanoTime() - start) / 1e6;
+
+        System.out.println(result);
+        System.out.printf("Ran in %.2f ms%n", wallTimeMs);
+    }
+}
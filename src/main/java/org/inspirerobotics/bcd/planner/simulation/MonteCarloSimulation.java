@@ -0,0 +1,296 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.curve.QBezierCurve;
+import org.inspirerobotics.bcd.planner.trajectory.RobotModel;
+import org.inspirerobotics.bcd.planner.trajectory.Trajectory;
+import org.inspirerobotics.bcd.planner.trajectory.TrajectoryGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs many simulations of the same curves, each with a randomly changed robot, to see how robust a route is.
+ * Every rollout changes the top speed and acceleration of the robot, the slip of the wheels and where the robot
+ * is placed at the start, and then records how long the route took, how far the robot got from the curves and
+ * how far it ended from the end of the last curve. The robot follows the curves with the {@link FollowerType}
+ * set with {@link #setFollowerType(FollowerType)}.
+ *<p></p>
+ * The rollouts are independent, so they run in parallel on a {@link ForkJoinPool}. Each rollout has its own
+ * random numbers, made from the seed and the index of the rollout, so the results are the same no matter how
+ * the rollouts are split between the threads. This class is designed to be run on a separate thread
+ * (apart from the UI thread).
+ */
+public class MonteCarloSimulation {
+
+    /**
+     * The cross track error is measured every this many steps
+     */
+    private static final int CROSS_TRACK_INTERVAL = 10;
+
+    private final RobotModel model;
+
+    private int rollouts = 1000;
+    private long seed = 4283;
+    private double dt = SimulationEngine.DEFAULT_DT;
+    private double maxTime = 60;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private FollowerType followerType = FollowerType.DEFAULT;
+
+    private double velocityVariation = .1;
+    private double accelerationVariation = .2;
+    private double maxSlip = .05;
+    private double startPositionNoise = .1;
+    private double startHeadingNoise = Math.toRadians(2);
+
+    public MonteCarloSimulation(RobotModel model) {
+        this.model = model;
+    }
+
+    public Result run(List<QBezierCurve> curves){
+        Result result = new Result(rollouts);
+
+        try {
+            pool.submit(() -> IntStream.range(0, rollouts).parallel().forEach(i -> runRollout(curves, i, result))).get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the rollouts", e);
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("A rollout failed", e.getCause());
+        }
+
+        return result;
+    }
+
+    private void runRollout(List<QBezierCurve> curves, int index, Result result){
+        SplittableRandom random = new SplittableRandom(seed + index * 0x9E3779B97F4A7C15L);
+
+        RobotModel rolloutModel = new RobotModel(
+                model.getMaxVelocity() * vary(random, velocityVariation),
+                model.getMaxAcceleration() * vary(random, accelerationVariation),
+                model.getMaxLateralAcceleration());
+
+        Trajectory trajectory = new TrajectoryGenerator(rolloutModel).generate(curves);
+        SimulationEngine engine = new SimulationEngine(curves, trajectory, dt);
+        followerType.apply(engine, rolloutModel);
+
+        engine.setSlip(random.nextDouble() * maxSlip);
+        engine.setStartError(gaussian(random) * startPositionNoise, gaussian(random) * startPositionNoise,
+                gaussian(random) * startHeadingNoise);
+        engine.reset();
+
+        double maxCrossTrackError = engine.getCrossTrackError();
+
+        while(engine.isRunning() && engine.getTime() < maxTime){
+            engine.step();
+
+            if(engine.getTickCount() % CROSS_TRACK_INTERVAL == 0 || !engine.isRunning()){
+                maxCrossTrackError = Math.max(maxCrossTrackError, engine.getCrossTrackError());
+            }
+        }
+
+        result.completionTimes[index] = engine.isRunning() ? Double.NaN : engine.getTime();
+        result.maxCrossTrackErrors[index] = maxCrossTrackError;
+        result.finalPoseErrors[index] = engine.getFinalPoseError();
+    }
+
+    /**
+     * @return a random scale between 1 - variation and 1 + variation
+     */
+    private static double vary(SplittableRandom random, double variation){
+        return 1 + variation * (2 * random.nextDouble() - 1);
+    }
+
+    /**
+     * A normally distributed random number (Box-Muller), since SplittableRandom does not have one
+     */
+    private static double gaussian(SplittableRandom random){
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    public void setRollouts(int rollouts) {
+        if(rollouts < 1)
+            throw new IllegalArgumentException("There must be at least one rollout: " + rollouts);
+
+        this.rollouts = rollouts;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setDt(double dt) {
+        if(!(dt > 0))
+            throw new IllegalArgumentException("dt must be positive: " + dt);
+
+        this.dt = dt;
+    }
+
+    /**
+     * @param maxTime rollouts that take longer than this (in seconds) are stopped and counted as not finished
+     */
+    public void setMaxTime(double maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void setFollowerType(FollowerType followerType) {
+        this.followerType = followerType;
+    }
+
+    /**
+     * @param velocityVariation the top speed is scaled by a random amount up to this fraction either way
+     */
+    public void setVelocityVariation(double velocityVariation) {
+        this.velocityVariation = checkVariation(velocityVariation);
+    }
+
+    /**
+     * @param accelerationVariation the acceleration is scaled by a random amount up to this fraction either way
+     */
+    public void setAccelerationVariation(double accelerationVariation) {
+        this.accelerationVariation = checkVariation(accelerationVariation);
+    }
+
+    private static double checkVariation(double variation){
+        if(!(variation >= 0 && variation < 1))
+            throw new IllegalArgumentException("Variation must be in [0, 1): " + variation);
+
+        return variation;
+    }
+
+    /**
+     * @param maxSlip the slip of each rollout is picked evenly between 0 and this
+     */
+    public void setMaxSlip(double maxSlip) {
+        if(!(maxSlip >= 0 && maxSlip < 1))
+            throw new IllegalArgumentException("Max slip must be in [0, 1): " + maxSlip);
+
+        this.maxSlip = maxSlip;
+    }
+
+    /**
+     * @param startPositionNoise the standard deviation of the start position in x and y (ft)
+     */
+    public void setStartPositionNoise(double startPositionNoise) {
+        this.startPositionNoise = startPositionNoise;
+    }
+
+    /**
+     * @param startHeadingNoise the standard deviation of the start heading (radians)
+     */
+    public void setStartHeadingNoise(double startHeadingNoise) {
+        this.startHeadingNoise = startHeadingNoise;
+    }
+
+    public int getRollouts() {
+        return rollouts;
+    }
+
+    public RobotModel getModel() {
+        return model;
+    }
+
+    /**
+     * The results of every rollout, stored by the index of the rollout
+     */
+    public static class Result{
+        private final double[] completionTimes;
+        private final double[] maxCrossTrackErrors;
+        private final double[] finalPoseErrors;
+
+        private Result(int rollouts) {
+            this.completionTimes = new double[rollouts];
+            this.maxCrossTrackErrors = new double[rollouts];
+            this.finalPoseErrors = new double[rollouts];
+        }
+
+        /**
+         * @return the time each rollout took to finish, or NaN if it did not finish in time
+         */
+        public double[] getCompletionTimes() {
+            return completionTimes.clone();
+        }
+
+        public double[] getMaxCrossTrackErrors() {
+            return maxCrossTrackErrors.clone();
+        }
+
+        public double[] getFinalPoseErrors() {
+            return finalPoseErrors.clone();
+        }
+
+        public Distribution getCompletionTime(){
+            return new Distribution(completionTimes);
+        }
+
+        public Distribution getMaxCrossTrackError(){
+            return new Distribution(maxCrossTrackErrors);
+        }
+
+        public Distribution getFinalPoseError(){
+            return new Distribution(finalPoseErrors);
+        }
+
+        /**
+         * @return the number of rollouts that did not finish before the max time
+         */
+        public int getUnfinishedCount(){
+            return (int) Arrays.stream(completionTimes).filter(Double::isNaN).count();
+        }
+
+        public int size(){
+            return completionTimes.length;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Rollouts: %d (%d did not finish)%n" +
+                            "Completion time (s): %s%n" +
+                            "Max cross track error (ft): %s%n" +
+                            "Final pose error (ft): %s",
+                    size(), getUnfinishedCount(), getCompletionTime(), getMaxCrossTrackError(), getFinalPoseError());
+        }
+    }
+
+    /**
+     * A summary of a list of values. NaN values are left out
+     */
+    public static class Distribution{
+        public final int count;
+        public final double min;
+        public final double mean;
+        public final double median;
+        public final double p95;
+        public final double max;
+
+        Distribution(double[] values) {
+            double[] sorted = Arrays.stream(values).filter(value -> !Double.isNaN(value)).sorted().toArray();
+
+            this.count = sorted.length;
+
+            if(count == 0){
+                this.min = this.mean = this.median = this.p95 = this.max = Double.NaN;
+                return;
+            }
+
+            this.min = sorted[0];
+            this.mean = Arrays.stream(sorted).average().orElse(Double.NaN);
+            this.median = sorted[(count - 1) / 2];
+            this.p95 = sorted[(int) Math.ceil(count * .95) - 1];
+            this.max = sorted[count - 1];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("min=%.3f, mean=%.3f, p50=%.3f, p95=%.3f, max=%.3f", min, mean, median, p95, max);
+        }
+    }
+}
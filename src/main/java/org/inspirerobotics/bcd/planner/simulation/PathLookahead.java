@@ -0,0 +1,120 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.curve.BezierSegment;
+import org.inspirerobotics.bcd.planner.curve.CurveProjection;
+import org.inspirerobotics.bcd.planner.trajectory.Trajectory;
+
+import java.util.Arrays;
+
+/**
+ * Finds points on the curves relative to the robot: the closest point to the robot, and the point a distance
+ * further along the curves (the lookahead point).
+ *<p></p>
+ * The closest point is found by projecting the robot onto the curves themselves with {@link CurveProjection},
+ * so it does not depend on how the trajectory was sampled. Only the curve of the last closest point and the
+ * curves next to it are checked, like {@link SimulationEngine#getCrossTrackError()}, so the search takes the
+ * same time no matter how many curves there are or how far the robot is from the curves. The lookahead point
+ * is found with a binary search of the distance at the start of each curve and the {@link
+ * org.inspirerobotics.bcd.planner.curve.ArcLengthTable} of that curve. Nothing is allocated.
+ */
+public class PathLookahead {
+
+    private final BezierSegment[] segments;
+
+    /**
+     * startDistances[i] is the distance along the path at the start of curve i
+     */
+    private final double[] startDistances;
+    private final double length;
+
+    private int closestCurve;
+    private double closestDistance;
+
+    public PathLookahead(BezierSegment[] segments) {
+        this.segments = segments.clone();
+        this.startDistances = new double[segments.length];
+
+        double distance = 0;
+
+        for(int i = 0; i < segments.length; i++){
+            startDistances[i] = distance;
+            distance += segments[i].getLength();
+        }
+
+        this.length = distance;
+    }
+
+    public void reset(){
+        closestCurve = 0;
+        closestDistance = 0;
+    }
+
+    /**
+     * Moves the closest point to the point on the curves nearest to the robot, checking the curve of the last
+     * closest point and the curves before and after it
+     */
+    public void update(double x, double y){
+        if(segments.length == 0)
+            return;
+
+        int first = Math.max(0, closestCurve - 1);
+        int last = Math.min(segments.length - 1, closestCurve + 1);
+        double nearest = Double.POSITIVE_INFINITY;
+
+        for(int i = first; i <= last; i++){
+            BezierSegment segment = segments[i];
+            double time = CurveProjection.findClosestTime(segment, x, y);
+            double distance = Math.hypot(segment.getX(time) - x, segment.getY(time) - y);
+
+            if(distance < nearest){
+                nearest = distance;
+                closestCurve = i;
+                closestDistance = startDistances[i] + segment.lengthAt(time);
+            }
+        }
+    }
+
+    /**
+     * Finds the point on the curves the lookahead distance past the closest point. Past the end of the path
+     * the end of the last curve is used. Only the distance, position, heading and curvature of the state are set
+     */
+    public void getLookaheadPoint(double lookahead, Trajectory.State out){
+        if(segments.length == 0)
+            return;
+
+        double distance = Math.max(0, Math.min(length, closestDistance + lookahead));
+        int index = Arrays.binarySearch(startDistances, distance);
+
+        //A distance between two starts is on the curve that starts before it
+        if(index < 0){
+            index = -index - 2;
+        }
+
+        BezierSegment segment = segments[index];
+        double time = segment.getArcLengthTable().timeAtDistance(distance - startDistances[index]);
+
+        out.distance = distance;
+        out.x = segment.getX(time);
+        out.y = segment.getY(time);
+        out.heading = Math.atan2(segment.getDerivativeY(time), segment.getDerivativeX(time));
+        out.curvature = segment.getCurvature(time);
+    }
+
+    /**
+     * @return the distance along the path to the point closest to the robot
+     */
+    public double getClosestDistance() {
+        return closestDistance;
+    }
+
+    /**
+     * @return the index of the curve the closest point is on
+     */
+    public int getClosestCurve() {
+        return closestCurve;
+    }
+
+    public double getLength() {
+        return length;
+    }
+}
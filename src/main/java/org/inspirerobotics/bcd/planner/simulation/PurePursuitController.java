@@ -0,0 +1,57 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.trajectory.Trajectory;
+
+/**
+ * A pure pursuit follower. It finds the point on the path a fixed distance ahead of the closest point
+ * and drives along the circle that passes through the robot and that point. The curvature of the circle
+ * is 2y / L<sup>2</sup>, where y is the sideways offset of the point from the robot and L is the distance
+ * to the point. The speed comes from the trajectory.
+ *<p></p>
+ * Source: <a href="https://www.ri.cmu.edu/pub_files/pub3/coulter_r_craig_1992_1/coulter_r_craig_1992_1.pdf">
+ *     Coulter, Implementation of the Pure Pursuit Path Tracking Algorithm</a>
+ */
+public class PurePursuitController implements FollowerController {
+
+    public static final double DEFAULT_LOOKAHEAD = 1.5;
+
+    private final double lookaheadDistance;
+    private final Trajectory.State lookaheadPoint = new Trajectory.State();
+
+    public PurePursuitController() {
+        this(DEFAULT_LOOKAHEAD);
+    }
+
+    /**
+     * @param lookaheadDistance how far ahead along the path the robot aims (ft)
+     */
+    public PurePursuitController(double lookaheadDistance) {
+        if(!(lookaheadDistance > 0))
+            throw new IllegalArgumentException("Lookahead distance must be positive: " + lookaheadDistance);
+
+        this.lookaheadDistance = lookaheadDistance;
+    }
+
+    @Override
+    public void calculate(double x, double y, double heading, Trajectory.State reference, PathLookahead lookahead,
+                          DriveCommand out) {
+        lookahead.getLookaheadPoint(lookaheadDistance, lookaheadPoint);
+
+        double dx = lookaheadPoint.x - x;
+        double dy = lookaheadPoint.y - y;
+        double distanceSquared = dx * dx + dy * dy;
+        double sideways = (Math.cos(heading) * dy) - (Math.sin(heading) * dx);
+        double curvature = distanceSquared > 1e-12 ? 2 * sideways / distanceSquared : 0;
+
+        out.set(reference.velocity, reference.velocity * curvature);
+    }
+
+    public double getLookaheadDistance() {
+        return lookaheadDistance;
+    }
+
+    @Override
+    public String getName() {
+        return "Pure Pursuit (lookahead=" + lookaheadDistance + " ft)";
+    }
+}
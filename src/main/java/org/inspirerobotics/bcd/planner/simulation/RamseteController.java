@@ -0,0 +1,69 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.trajectory.Trajectory;
+
+/**
+ * A Ramsete follower. It tracks where the robot should be at this time on the trajectory, correcting the
+ * error in the robot's frame with a nonlinear feedback law:
+ * <pre>
+ *  k = 2&zeta;sqrt(&omega;<sub>d</sub><sup>2</sup> + b v<sub>d</sub><sup>2</sup>)
+ *  v = v<sub>d</sub> cos(e<sub>&theta;</sub>) + k e<sub>x</sub>
+ *  &omega; = &omega;<sub>d</sub> + k e<sub>&theta;</sub> + b v<sub>d</sub> sinc(e<sub>&theta;</sub>) e<sub>y</sub>
+ * </pre>
+ * b works like a proportional gain (larger is more aggressive) and &zeta; like a damping ratio.
+ *<p></p>
+ * Source: <a href="https://file.tavsys.net/control/controls-engineering-in-frc.pdf">
+ *     Controls Engineering in FRC, section 8.9</a>
+ */
+public class RamseteController implements FollowerController {
+
+    /**
+     * The usual b of 2 m<sup>-2</sup>, in ft<sup>-2</sup>
+     */
+    public static final double DEFAULT_B = 2 * .3048 * .3048;
+    public static final double DEFAULT_ZETA = .7;
+
+    private final double b;
+    private final double zeta;
+
+    public RamseteController() {
+        this(DEFAULT_B, DEFAULT_ZETA);
+    }
+
+    public RamseteController(double b, double zeta) {
+        if(!(b > 0) || !(zeta > 0 && zeta < 1))
+            throw new IllegalArgumentException("b must be positive and zeta must be in (0, 1)");
+
+        this.b = b;
+        this.zeta = zeta;
+    }
+
+    @Override
+    public void calculate(double x, double y, double heading, Trajectory.State reference, PathLookahead lookahead,
+                          DriveCommand out) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        double dx = reference.x - x;
+        double dy = reference.y - y;
+
+        double errorX = (cos * dx) + (sin * dy);
+        double errorY = (cos * dy) - (sin * dx);
+        double errorHeading = Math.atan2(Math.sin(reference.heading - heading), Math.cos(reference.heading - heading));
+
+        double velocity = reference.velocity;
+        double angularVelocity = reference.velocity * reference.curvature;
+        double k = 2 * zeta * Math.sqrt((angularVelocity * angularVelocity) + (b * velocity * velocity));
+
+        out.set(velocity * Math.cos(errorHeading) + (k * errorX),
+                angularVelocity + (k * errorHeading) + (b * velocity * sinc(errorHeading) * errorY));
+    }
+
+    private static double sinc(double x){
+        return Math.abs(x) < 1e-9 ? 1 - (x * x / 6) : Math.sin(x) / x;
+    }
+
+    @Override
+    public String getName() {
+        return "Ramsete (b=" + b + ", zeta=" + zeta + ")";
+    }
+}
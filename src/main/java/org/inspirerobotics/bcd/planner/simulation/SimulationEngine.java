@@ -0,0 +1,371 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.curve.ArcLengthCursor;
+import org.inspirerobotics.bcd.planner.curve.BezierSegment;
+import org.inspirerobotics.bcd.planner.curve.CurveProjection;
+import org.inspirerobotics.bcd.planner.curve.QBezierCurve;
+import org.inspirerobotics.bcd.planner.trajectory.Trajectory;
+
+import java.util.List;
+
+/**
+ * A simulation of the robot driving along the curves, stepped with a fixed time step. The robot
+ * follows the velocity profile of the {@link Trajectory} and drives along the tangent of the curve.
+ * The position on the curve is tracked with an {@link ArcLengthCursor}, so each step only integrates
+ * the distance moved in that step, and the distance past the end of a curve is carried onto the next one.
+ *<p></p>
+ * Errors of a real robot can be added with {@link #setSlip(double)} (the wheels lose part of every step)
+ * and {@link #setStartError(double, double, double)} (the robot is not placed exactly at the start).
+ *<p></p>
+ * With {@link #setFollower(FollowerController, DifferentialDrive, double)} the robot is instead steered by a
+ * {@link FollowerController} driving a {@link DifferentialDrive}, like the real robot, so the simulation shows
+ * how far the robot gets from the curves. The controller runs at its own rate, usually slower than the engine,
+ * and its command is held between runs. The cursor then tracks where the robot should be on the curves.
+ *<p></p>
+ * The engine does not use the wall clock or the UI, so stepping it is deterministic: the same curves,
+ * trajectory and time step always give the same result, no matter how fast the engine is stepped.
+ * This makes it possible to run a whole routine headless in a few milliseconds. The curves are copied
+ * when the engine is created, so editing them does not change a running simulation.
+ * The engine is not thread safe, it should only be used from one thread at a time.
+ */
+public class SimulationEngine {
+
+    /**
+     * The default time step in seconds (1 kHz)
+     */
+    public static final double DEFAULT_DT = .001;
+
+    private final BezierSegment[] segments;
+    private final Trajectory trajectory;
+    private final double dt;
+    private final Trajectory.State trajectoryState = new Trajectory.State();
+
+    private long ticks;
+    private boolean running;
+
+    private int curveIndex;
+    private ArcLengthCursor cursor;
+    private double pathDistance;
+
+    private double x;
+    private double y;
+    private double heading;
+    private double velocity;
+
+    private double slip;
+    private double startErrorX;
+    private double startErrorY;
+    private double headingError;
+
+    private FollowerController follower;
+    private DifferentialDrive drive;
+    private long controllerInterval = 1;
+    private PathLookahead lookahead;
+    private final DriveCommand command = new DriveCommand();
+    private final double[] wheelSpeeds = new double[2];
+    private final double[] pose = new double[3];
+
+    public SimulationEngine(List<QBezierCurve> curves, Trajectory trajectory, double dt) {
+        if(!(dt > 0))
+            throw new IllegalArgumentException("dt must be positive: " + dt);
+
+        this.segments = curves.stream().map(QBezierCurve::getSegment).toArray(BezierSegment[]::new);
+        this.trajectory = trajectory;
+        this.dt = dt;
+
+        reset();
+    }
+
+    /**
+     * Moves the robot back to the start of the first curve
+     */
+    public void reset(){
+        ticks = 0;
+        running = segments.length > 0 && trajectory.size() > 0;
+        curveIndex = 0;
+        pathDistance = 0;
+        velocity = 0;
+
+        if(segments.length > 0){
+            cursor = new ArcLengthCursor(segments[0]);
+            x = segments[0].getP0x() + startErrorX;
+            y = segments[0].getP0y() + startErrorY;
+            heading = calcTangentAngle() + headingError;
+        }
+
+        command.set(0, 0);
+        wheelSpeeds[0] = wheelSpeeds[1] = 0;
+
+        if(follower != null){
+            follower.reset();
+            lookahead.reset();
+        }
+    }
+
+    /**
+     * Advances the simulation by one time step
+     *
+     * @return true if the simulation is still running
+     */
+    public boolean step(){
+        if(!running)
+            return false;
+
+        ticks++;
+        trajectory.sample(getTime(), trajectoryState);
+
+        double deltaDistance = trajectoryState.distance - pathDistance;
+        pathDistance = trajectoryState.distance;
+
+        if(follower == null){
+            velocity = trajectoryState.velocity;
+
+            double movedDistance = deltaDistance * (1 - slip);
+            heading = calcTangentAngle() + headingError;
+            x += Math.cos(heading) * movedDistance;
+            y += Math.sin(heading) * movedDistance;
+        }else{
+            stepFollower();
+        }
+
+        double leftover = cursor.advance(deltaDistance);
+
+        while(cursor.isAtEnd() && running){
+            leftover = gotoNextCurve(leftover);
+        }
+
+        if(getTime() >= trajectory.getDuration()){
+            running = false;
+        }
+
+        return running;
+    }
+
+    /**
+     * Runs the controller if it is due, then moves the robot by the distance each wheel drove in this step
+     */
+    private void stepFollower(){
+        if((ticks - 1) % controllerInterval == 0){
+            lookahead.update(x, y);
+            follower.calculate(x, y, heading, trajectoryState, lookahead, command);
+            drive.toWheelSpeeds(command, wheelSpeeds);
+        }
+
+        double left = wheelSpeeds[0] * dt * (1 - slip);
+        double right = wheelSpeeds[1] * dt * (1 - slip);
+
+        pose[0] = x;
+        pose[1] = y;
+        pose[2] = heading;
+        drive.move(left, right, pose);
+
+        x = pose[0];
+        y = pose[1];
+        heading = pose[2];
+        velocity = (left + right) / (2 * dt);
+    }
+
+    /**
+     * Steps the simulation until it finishes or the max time is reached
+     *
+     * @return the number of steps taken
+     */
+    public long run(double maxTime){
+        long start = ticks;
+
+        while(running && getTime() < maxTime){
+            step();
+        }
+
+        return ticks - start;
+    }
+
+    /**
+     * Moves the cursor onto the next curve and carries the distance that was
+     * left over at the end of the last curve onto it
+     *
+     * @return the distance past the end of the next curve
+     */
+    private double gotoNextCurve(double leftover){
+        if(curveIndex + 1 >= segments.length){
+            running = false;
+            return 0;
+        }
+
+        curveIndex++;
+        cursor.reset(segments[curveIndex]);
+        return cursor.advance(leftover);
+    }
+
+    /**
+     * @return the distance from the robot to the closest point on the current curve or the curves next to it.
+     * Only three curves are checked, so this takes the same time no matter how many curves there are
+     */
+    public double getCrossTrackError(){
+        double closest = Double.POSITIVE_INFINITY;
+
+        for(int i = Math.max(0, curveIndex - 1); i <= Math.min(segments.length - 1, curveIndex + 1); i++){
+            BezierSegment segment = segments[i];
+            double time = CurveProjection.findClosestTime(segment, x, y);
+
+            closest = Math.min(closest, Math.hypot(segment.getX(time) - x, segment.getY(time) - y));
+        }
+
+        return closest;
+    }
+
+    /**
+     * @return the distance from the robot to the end of the last curve
+     */
+    public double getFinalPoseError(){
+        if(segments.length == 0)
+            return 0;
+
+        BezierSegment last = segments[segments.length - 1];
+        return Math.hypot(last.getP2x() - x, last.getP2y() - y);
+    }
+
+    /**
+     * @param slip the fraction of each step the wheels lose, from 0 (no slip) up to 1
+     */
+    public void setSlip(double slip){
+        if(!(slip >= 0 && slip < 1))
+            throw new IllegalArgumentException("Slip must be in [0, 1): " + slip);
+
+        this.slip = slip;
+    }
+
+    /**
+     * Sets how far the robot is placed from the start of the first curve. Without a follower the heading error stays
+     * for the whole run, the robot drives at that angle to the curve. This takes effect the next time the engine is
+     * {@link #reset()}
+     */
+    public void setStartError(double x, double y, double heading){
+        this.startErrorX = x;
+        this.startErrorY = y;
+        this.headingError = heading;
+    }
+
+    /**
+     * Steers the robot with a controller instead of moving it exactly along the curves.
+     * This takes effect the next time the engine is {@link #reset()}
+     *
+     * @param follower the controller, or null to move the robot along the curves
+     * @param drive the drive the controller commands
+     * @param controllerPeriod the time between runs of the controller in seconds. This is rounded to a whole number of steps
+     */
+    public void setFollower(FollowerController follower, DifferentialDrive drive, double controllerPeriod){
+        if(follower != null && (drive == null || !(controllerPeriod > 0)))
+            throw new IllegalArgumentException("A follower needs a drive and a positive controller period");
+
+        this.follower = follower;
+        this.drive = drive;
+        this.controllerInterval = follower == null ? 1 : Math.max(1, Math.round(controllerPeriod / dt));
+        this.lookahead = follower == null ? null : new PathLookahead(segments);
+    }
+
+    private double calcTangentAngle(){
+        BezierSegment segment = segments[curveIndex];
+        return Math.atan2(segment.getDerivativeY(getCurveTime()), segment.getDerivativeX(getCurveTime()));
+    }
+
+    /**
+     * @return the time simulated so far in seconds. This is counted in steps, so it does not drift
+     */
+    public double getTime(){
+        return ticks * dt;
+    }
+
+    public long getTickCount() {
+        return ticks;
+    }
+
+    public double getDt() {
+        return dt;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getCurveIndex() {
+        return curveIndex;
+    }
+
+    /**
+     * @return the time (t) on the current curve
+     */
+    public double getCurveTime() {
+        return cursor == null ? 0 : cursor.getTime();
+    }
+
+    /**
+     * @return the distance travelled along the current curve
+     */
+    public double getCurveDistance() {
+        return cursor == null ? 0 : cursor.getDistance();
+    }
+
+    /**
+     * @return the distance travelled since the start of the path
+     */
+    public double getPathDistance() {
+        return pathDistance;
+    }
+
+    /**
+     * @return the x position of the point on the current curve at the current time
+     */
+    public double getCurvePointX(){
+        return segments.length == 0 ? 0 : segments[curveIndex].getX(getCurveTime());
+    }
+
+    public double getCurvePointY(){
+        return segments.length == 0 ? 0 : segments[curveIndex].getY(getCurveTime());
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getHeading() {
+        return heading;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    public int getSegmentCount(){
+        return segments.length;
+    }
+
+    /**
+     * @return a copy of the curves being simulated
+     */
+    public BezierSegment[] getSegments(){
+        return segments.clone();
+    }
+
+    /**
+     * @return the controller steering the robot, or null if the robot moves exactly along the curves
+     */
+    public FollowerController getFollower() {
+        return follower;
+    }
+
+    /**
+     * @return the number of steps between runs of the controller
+     */
+    public long getControllerInterval() {
+        return controllerInterval;
+    }
+
+    public Trajectory getTrajectory() {
+        return trajectory;
+    }
+}
@@ -0,0 +1,109 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link SimulationEngine} in real time on its own thread. After every step an immutable
+ * {@link SimulationSnapshot} is published through an {@link AtomicReference}, so any other thread
+ * (normally the UI thread) can read the latest state without locking or slowing down the simulation.
+ *<p></p>
+ * The engine is stepped with its fixed time step to keep up with the clock. If the thread falls too far
+ * behind (for example when the computer is busy), the simulation is paused for the missed time instead
+ * of being rushed, so each step is still the same.
+ *<p></p>
+ * If a {@link TelemetryRecorder} is passed, every step is also recorded on the simulation thread.
+ */
+public class SimulationRunner {
+
+    /**
+     * The most time in seconds the simulation may fall behind the clock before it is paused
+     */
+    private static final double MAX_CATCH_UP_TIME = .25;
+
+    private final SimulationEngine engine;
+    private final TelemetryRecorder recorder;
+    private final AtomicReference<SimulationSnapshot> snapshot = new AtomicReference<>();
+    private final Thread thread;
+
+    private volatile boolean stopped;
+
+    public SimulationRunner(SimulationEngine engine) {
+        this(engine, null);
+    }
+
+    /**
+     * The engine must not be used by other threads after it is passed to the runner
+     *
+     * @param recorder records every step, or null to not record
+     */
+    public SimulationRunner(SimulationEngine engine, TelemetryRecorder recorder) {
+        this.engine = engine;
+        this.recorder = recorder;
+        this.thread = new Thread(this::run, "Simulation");
+        this.thread.setDaemon(true);
+
+        SimulationState state = SimulationState.of(engine);
+        snapshot.set(new SimulationSnapshot(state, state, System.nanoTime()));
+    }
+
+    public void start(){
+        thread.start();
+    }
+
+    /**
+     * Stops the thread. The last snapshot stays available
+     */
+    public void stop(){
+        stopped = true;
+        LockSupport.unpark(thread);
+    }
+
+    private void run(){
+        long stepNanos = Math.max(1, Math.round(engine.getDt() * 1e9));
+        long maxBehindSteps = Math.max(1, Math.round(MAX_CATCH_UP_TIME / engine.getDt()));
+        long startNanos = System.nanoTime();
+        SimulationState previous = SimulationState.of(engine);
+
+        snapshot.set(new SimulationSnapshot(previous, previous, startNanos));
+        record();
+
+        while(!stopped && engine.isRunning()){
+            long targetTicks = (System.nanoTime() - startNanos) / stepNanos;
+            long behind = targetTicks - engine.getTickCount();
+
+            if(behind <= 0){
+                LockSupport.parkNanos(startNanos + (engine.getTickCount() + 1) * stepNanos - System.nanoTime());
+                continue;
+            }
+
+            if(behind > maxBehindSteps){
+                startNanos += (behind - maxBehindSteps) * stepNanos;
+            }
+
+            engine.step();
+            record();
+
+            SimulationState current = SimulationState.of(engine);
+            snapshot.set(new SimulationSnapshot(previous, current, startNanos));
+            previous = current;
+        }
+    }
+
+    private void record(){
+        if(recorder != null){
+            recorder.record(engine);
+        }
+    }
+
+    /**
+     * @return the latest snapshot, never null
+     */
+    public SimulationSnapshot getSnapshot(){
+        return snapshot.get();
+    }
+
+    public boolean isAlive(){
+        return thread.isAlive();
+    }
+}
@@ -0,0 +1,41 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+/**
+ * The two latest states published by a {@link SimulationRunner}, and the {@link System#nanoTime()}
+ * when the simulation started, so a renderer can find the state between the two steps at any moment.
+ * This class is immutable.
+ */
+public final class SimulationSnapshot {
+
+    private final SimulationState previous;
+    private final SimulationState current;
+    private final long startNanos;
+
+    SimulationSnapshot(SimulationState previous, SimulationState current, long startNanos) {
+        this.previous = previous;
+        this.current = current;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Finds the state at the passed {@link System#nanoTime()}, blended between the two latest states.
+     * The state is shown one step late, so the time is normally between the two states
+     */
+    public SimulationState stateAt(long nanoTime){
+        double stepTime = current.time - previous.time;
+
+        if(!(stepTime > 0) || !current.running)
+            return current;
+
+        double renderTime = (nanoTime - startNanos) / 1e9 - stepTime;
+        return previous.interpolate(current, (renderTime - previous.time) / stepTime);
+    }
+
+    public SimulationState getPrevious() {
+        return previous;
+    }
+
+    public SimulationState getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,75 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+/**
+ * The state of a {@link SimulationEngine} after one step. This class is immutable, so it can be passed
+ * between threads freely. Distances are in feet, times in seconds and angles in radians.
+ */
+public final class SimulationState {
+
+    public final double time;
+    public final double x;
+    public final double y;
+    public final double heading;
+    public final double velocity;
+
+    public final int curveIndex;
+    public final double curveTime;
+    public final double curveDistance;
+    public final double curvePointX;
+    public final double curvePointY;
+
+    public final boolean running;
+
+    public SimulationState(double time, double x, double y, double heading, double velocity, int curveIndex,
+                           double curveTime, double curveDistance, double curvePointX, double curvePointY,
+                           boolean running) {
+        this.time = time;
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+        this.velocity = velocity;
+        this.curveIndex = curveIndex;
+        this.curveTime = curveTime;
+        this.curveDistance = curveDistance;
+        this.curvePointX = curvePointX;
+        this.curvePointY = curvePointY;
+        this.running = running;
+    }
+
+    public static SimulationState of(SimulationEngine engine){
+        return new SimulationState(engine.getTime(), engine.getX(), engine.getY(), engine.getHeading(),
+                engine.getVelocity(), engine.getCurveIndex(), engine.getCurveTime(), engine.getCurveDistance(),
+                engine.getCurvePointX(), engine.getCurvePointY(), engine.isRunning());
+    }
+
+    /**
+     * @return the state part of the way (0 to 1) from this state to the next one. Values that can not be
+     * blended, such as the curve index, come from whichever state is closer
+     */
+    public SimulationState interpolate(SimulationState next, double fraction){
+        if(fraction <= 0)
+            return this;
+        if(fraction >= 1)
+            return next;
+
+        SimulationState closest = fraction < .5 ? this : next;
+        double deltaHeading = Math.atan2(Math.sin(next.heading - heading), Math.cos(next.heading - heading));
+
+        return new SimulationState(
+                lerp(time, next.time, fraction),
+                lerp(x, next.x, fraction),
+                lerp(y, next.y, fraction),
+                heading + deltaHeading * fraction,
+                lerp(velocity, next.velocity, fraction),
+                closest.curveIndex,
+                closest.curveTime,
+                closest.curveDistance,
+                closest.curvePointX,
+                closest.curvePointY,
+                closest.running);
+    }
+
+    private static double lerp(double start, double end, double fraction){
+        return start + (end - start) * fraction;
+    }
+}
@@ -0,0 +1,140 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import org.inspirerobotics.bcd.planner.curve.BezierSegment;
+
+/**
+ * Plays back the samples of a {@link TelemetryRecorder} at any speed (including backwards), and can jump
+ * to any moment of the recording. The playback time is worked out from the clock when it is needed, so the
+ * player does not have to be updated every frame. The player should only be used from one thread.
+ */
+public class TelemetryPlayer {
+
+    private final TelemetryRecorder recorder;
+    private final BezierSegment[] segments;
+
+    private final TelemetryRecorder.Sample lower = new TelemetryRecorder.Sample();
+    private final TelemetryRecorder.Sample upper = new TelemetryRecorder.Sample();
+
+    private double anchorTime;
+    private long anchorNanos;
+    private double speed = 1;
+    private boolean playing;
+
+    /**
+     * @param segments the curves of the simulation that was recorded, used to find the point on the curve
+     */
+    public TelemetryPlayer(TelemetryRecorder recorder, BezierSegment[] segments) {
+        this.recorder = recorder;
+        this.segments = segments.clone();
+    }
+
+    public void play(long nanoTime){
+        anchorTime = getTime(nanoTime);
+        anchorNanos = nanoTime;
+        playing = true;
+    }
+
+    public void pause(long nanoTime){
+        anchorTime = getTime(nanoTime);
+        playing = false;
+    }
+
+    /**
+     * Jumps to the time in the recording (in seconds of simulation time)
+     */
+    public void seek(double time, long nanoTime){
+        anchorTime = clamp(time);
+        anchorNanos = nanoTime;
+    }
+
+    /**
+     * @param speed how many seconds of the recording are played each second, negative plays backwards
+     */
+    public void setSpeed(double speed, long nanoTime){
+        anchorTime = getTime(nanoTime);
+        anchorNanos = nanoTime;
+        this.speed = speed;
+    }
+
+    /**
+     * @return the playback time at the passed {@link System#nanoTime()}, inside the recording
+     */
+    public double getTime(long nanoTime){
+        if(!playing)
+            return clamp(anchorTime);
+
+        return clamp(anchorTime + (nanoTime - anchorNanos) / 1e9 * speed);
+    }
+
+    /**
+     * @return the recorded state at the playback time, blended between the two samples around it,
+     * or null if nothing has been recorded
+     */
+    public SimulationState getState(long nanoTime){
+        double time = getTime(nanoTime);
+        long sequence = recorder.seek(time);
+
+        if(sequence < 0 || !recorder.read(sequence, lower))
+            return null;
+
+        if(!recorder.read(sequence + 1, upper) || !(upper.time > lower.time))
+            return toState(lower, lower, 0);
+
+        return toState(lower, upper, (time - lower.time) / (upper.time - lower.time));
+    }
+
+    private SimulationState toState(TelemetryRecorder.Sample start, TelemetryRecorder.Sample end, double fraction){
+        fraction = Math.max(0, Math.min(1, fraction));
+
+        TelemetryRecorder.Sample closest = fraction < .5 ? start : end;
+        BezierSegment segment = segments[Math.min(segments.length - 1, closest.curveIndex)];
+        double deltaHeading = Math.atan2(Math.sin(end.heading - start.heading), Math.cos(end.heading - start.heading));
+
+        return new SimulationState(
+                start.time + (end.time - start.time) * fraction,
+                start.x + (end.x - start.x) * fraction,
+                start.y + (end.y - start.y) * fraction,
+                start.heading + deltaHeading * fraction,
+                start.velocity + (end.velocity - start.velocity) * fraction,
+                closest.curveIndex,
+                closest.curveTime,
+                closest.distance,
+                segment.getX(closest.curveTime),
+                segment.getY(closest.curveTime),
+                true);
+    }
+
+    private double clamp(double time){
+        return Math.max(getStartTime(), Math.min(getEndTime(), time));
+    }
+
+    /**
+     * @return the time of the oldest sample in the recording
+     */
+    public double getStartTime(){
+        return getSampleTime(recorder.getFirstSequence());
+    }
+
+    /**
+     * @return the time of the newest sample in the recording
+     */
+    public double getEndTime(){
+        return getSampleTime(recorder.getLastSequence());
+    }
+
+    private double getSampleTime(long sequence){
+        return recorder.read(sequence, lower) ? lower.time : 0;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public TelemetryRecorder getRecorder() {
+        return recorder;
+    }
+}
@@ -0,0 +1,187 @@
+package org.inspirerobotics.bcd.planner.simulation;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Records the state of a {@link SimulationEngine} after every step into preallocated arrays, one array per
+ * value (time, position, angle, curve index, t, distance and velocity). Recording does not allocate anything.
+ *<p></p>
+ * The arrays are a ring buffer: once it is full, the oldest samples are overwritten. Every sample has a
+ * sequence number that counts up from 0, and samples are read by their sequence number. Samples are in order
+ * of time, so the sample at a time is found with a binary search.
+ *<p></p>
+ * One thread may record while other threads read. A read checks afterwards that the sample was not overwritten
+ * while it was being read, see {@link #read(long, Sample)}. This works like a seqlock: the count is the sequence,
+ * and fences keep the plain array reads and writes on the right side of it.
+ */
+public class TelemetryRecorder {
+
+    /**
+     * One minute at the default time step of the {@link SimulationEngine}
+     */
+    public static final int DEFAULT_CAPACITY = 60_000;
+
+    private final int capacity;
+
+    private final double[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private final int[] curveIndices;
+    private final double[] curveTimes;
+    private final double[] distances;
+    private final double[] velocities;
+
+    /**
+     * The number of samples ever recorded, which is also the sequence number of the next sample.
+     * It is written after the sample, so a reader that sees the count also sees the sample
+     */
+    private volatile long count;
+
+    public TelemetryRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TelemetryRecorder(int capacity) {
+        if(capacity < 2)
+            throw new IllegalArgumentException("Capacity must be at least 2: " + capacity);
+
+        this.capacity = capacity;
+        this.times = new double[capacity];
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+        this.headings = new double[capacity];
+        this.curveIndices = new int[capacity];
+        this.curveTimes = new double[capacity];
+        this.distances = new double[capacity];
+        this.velocities = new double[capacity];
+    }
+
+    /**
+     * Adds the current state of the engine. Only one thread may record
+     */
+    public void record(SimulationEngine engine){
+        long sequence = count;
+        int slot = (int) (sequence % capacity);
+
+        //The count from the last record must be seen before any of the writes that overwrite an old sample
+        VarHandle.storeStoreFence();
+
+        times[slot] = engine.getTime();
+        xs[slot] = engine.getX();
+        ys[slot] = engine.getY();
+        headings[slot] = engine.getHeading();
+        curveIndices[slot] = engine.getCurveIndex();
+        curveTimes[slot] = engine.getCurveTime();
+        distances[slot] = engine.getPathDistance();
+        velocities[slot] = engine.getVelocity();
+
+        count = sequence + 1;
+    }
+
+    /**
+     * Removes every sample
+     */
+    public void clear(){
+        count = 0;
+    }
+
+    /**
+     * Copies the sample into out
+     *
+     * @return false if the sample is not in the buffer (not recorded yet, or overwritten before or during the read)
+     */
+    public boolean read(long sequence, Sample out){
+        if(sequence < getFirstSequence() || sequence >= count)
+            return false;
+
+        int slot = (int) (sequence % capacity);
+
+        out.sequence = sequence;
+        out.time = times[slot];
+        out.x = xs[slot];
+        out.y = ys[slot];
+        out.heading = headings[slot];
+        out.curveIndex = curveIndices[slot];
+        out.curveTime = curveTimes[slot];
+        out.distance = distances[slot];
+        out.velocity = velocities[slot];
+
+        //The writer may have started overwriting the slot while it was read. The fence stops the
+        //reads of the slot from moving past the read of the count
+        VarHandle.acquireFence();
+        return sequence > count - capacity;
+    }
+
+    /**
+     * @return the sequence number of the last sample at or before the time, or -1 if there are no samples.
+     * Times before the first sample give the first sample. This is a binary search, so it takes O(log n)
+     */
+    public long seek(double time){
+        long high = count - 1;
+        long low = getFirstSequence();
+
+        if(high < low)
+            return -1;
+
+        if(time < getTime(low))
+            return low;
+
+        while(low < high){
+            long middle = (low + high + 1) >>> 1;
+
+            if(getTime(middle) <= time){
+                low = middle;
+            }else{
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    private double getTime(long sequence){
+        return times[(int) (sequence % capacity)];
+    }
+
+    /**
+     * @return the sequence number of the oldest sample still in the buffer. A sample
+     * that is about to be overwritten is left out, so it can be read safely
+     */
+    public long getFirstSequence(){
+        return Math.max(0, count - capacity + 1);
+    }
+
+    /**
+     * @return the sequence number of the newest sample, or -1 if nothing has been recorded
+     */
+    public long getLastSequence(){
+        return count - 1;
+    }
+
+    /**
+     * @return the number of samples that can be read
+     */
+    public int size(){
+        return (int) (count - getFirstSequence());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * One recorded sample. Distances are in feet, times in seconds and angles in radians
+     */
+    public static class Sample{
+        public long sequence;
+        public double time;
+        public double x;
+        public double y;
+        public double heading;
+        public int curveIndex;
+        public double curveTime;
+        public double distance;
+        public double velocity;
+    }
+}
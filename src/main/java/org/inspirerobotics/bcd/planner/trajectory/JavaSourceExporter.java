@@ -0,0 +1,332 @@
+package org.inspirerobotics.bcd.planner.trajectory;
+
+import org.inspirerobotics.bcd.planner.Launcher;
+import org.inspirerobotics.bcd.planner.curve.ArcLengthTable;
+import org.inspirerobotics.bcd.planner.curve.BezierSegment;
+import org.inspirerobotics.bcd.planner.curve.QBezierCurve;
+import org.inspirerobotics.bcd.planner.ui.Gui;
+
+import javax.lang.model.SourceVersion;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Writes the curves and their trajectory as a Java class made of constant arrays, which can be
+ * copied into the robot project. The robot then only has to index the arrays, so it does no curve
+ * math or file reading when it is enabled. This class is designed to be run on a separate thread
+ * (apart from the UI thread).
+ *<p></p>
+ * A class file can only hold 64 KB of code in its static initializer and about 32,000 double constants,
+ * so large arrays are split into chunks that are each kept in their own nested class, and joined when the
+ * generated class is loaded.
+ */
+public class JavaSourceExporter {
+
+    public static final String EXTENSION = "java";
+    public static final int ARC_LENGTH_SAMPLES = 64;
+
+    /**
+     * The most values in one array literal, and the most values written directly into the generated class
+     */
+    private static final int CHUNK_SIZE = 2048;
+    private static final int VALUES_PER_LINE = 6;
+    private static final String INDENT = "    ";
+
+    private final String packageName;
+    private final String className;
+    private final TrajectoryGenerator generator;
+    private final double dt;
+
+    private final StringBuilder source = new StringBuilder();
+    private final StringBuilder chunkClasses = new StringBuilder();
+    private int inlineValues;
+    private boolean joinNeeded;
+
+    /**
+     * @param packageName the package of the generated class, or an empty string for the default package
+     * @param dt the time between the exported states in seconds
+     */
+    public JavaSourceExporter(String packageName, String className, TrajectoryGenerator generator, double dt) {
+        if(!isQualifiedName(packageName) && !packageName.isEmpty())
+            throw new IllegalArgumentException("Invalid package name: " + packageName);
+        if(!isIdentifier(className))
+            throw new IllegalArgumentException("Invalid class name: " + className);
+        if(!(dt > 0))
+            throw new IllegalArgumentException("dt must be positive: " + dt);
+
+        this.packageName = packageName;
+        this.className = className;
+        this.generator = generator;
+        this.dt = dt;
+    }
+
+    /**
+     * Generates the source file for the curves and saves it, showing an error if it fails.
+     * The class is named after the file
+     */
+    public static void export(File file, String packageName, List<QBezierCurve> curves, RobotModel model){
+        try {
+            String className = file.getName().replaceFirst("\\." + EXTENSION + "$", "");
+            var exporter = new JavaSourceExporter(packageName, className, new TrajectoryGenerator(model),
+                    TrajectoryExporter.DEFAULT_DT);
+
+            Files.writeString(file.toPath(), exporter.generate(curves));
+        } catch(IOException | RuntimeException e) {
+            e.printStackTrace();
+            Gui.showError("Failed to export the Java source!", e);
+        }
+    }
+
+    /**
+     * @return the source of the generated class
+     */
+    public synchronized String generate(List<QBezierCurve> curves){
+        source.setLength(0);
+        chunkClasses.setLength(0);
+        inlineValues = 0;
+        joinNeeded = false;
+
+        Trajectory trajectory = generator.generate(curves).resample(dt);
+        RobotModel model = generator.getModel();
+
+        writeHeader(curves.size(), trajectory.size());
+        writeConstant("int", "SEGMENT_COUNT", Integer.toString(curves.size()), "The number of curves");
+        writeConstant("int", "ARC_LENGTH_SAMPLES", Integer.toString(ARC_LENGTH_SAMPLES),
+                "The number of gaps between the samples of each arc length table");
+        writeConstant("int", "STATE_COUNT", Integer.toString(trajectory.size()), "The number of states");
+        writeConstant("double", "DT", toLiteral(dt), "The time between states in seconds");
+        writeConstant("double", "MAX_VELOCITY", toLiteral(model.getMaxVelocity()), "The top speed of the robot (ft/s)");
+        writeConstant("double", "MAX_ACCELERATION", toLiteral(model.getMaxAcceleration()),
+                "The max acceleration of the robot (ft/s^2)");
+        writeConstant("double", "MAX_LATERAL_ACCELERATION", toLiteral(model.getMaxLateralAcceleration()),
+                "The max lateral acceleration of the robot (ft/s^2)");
+        writeNames(curves);
+
+        writeSegments(curves);
+        writeTrajectory(trajectory);
+
+        if(joinNeeded){
+            writeJoin();
+        }
+
+        source.append(chunkClasses);
+        source.append("}\n");
+
+        return source.toString();
+    }
+
+    private void writeHeader(int segments, int states){
+        source.append("// Generated by BCD Planner ").append(Launcher.VERSION).append(". Do not edit.\n");
+
+        if(!packageName.isEmpty()){
+            source.append("package ").append(packageName).append(";\n");
+        }
+
+        source.append('\n');
+        source.append("/**\n");
+        source.append(" * Curves: ").append(segments).append(", trajectory states: ").append(states).append(".\n");
+        source.append(" * Distances are in feet, times in seconds and angles in radians.\n");
+        source.append(" * <p>\n");
+        source.append(" * The values of segment i start at index i * (values per segment). A curve is\n");
+        source.append(" * B(t) = at^2 + bt + P0, and its arc length table holds the length from t = 0 to\n");
+        source.append(" * t = j / ARC_LENGTH_SAMPLES at index i * (ARC_LENGTH_SAMPLES + 1) + j.\n");
+        source.append(" */\n");
+        source.append("public final class ").append(className).append(" {\n\n");
+        source.append(INDENT).append("private ").append(className).append("() {\n\n");
+        source.append(INDENT).append("}\n\n");
+    }
+
+    private void writeConstant(String type, String name, String value, String doc){
+        source.append(INDENT).append("/** ").append(doc).append(" */\n");
+        source.append(INDENT).append("public static final ").append(type).append(' ').append(name)
+                .append(" = ").append(value).append(";\n\n");
+    }
+
+    private void writeNames(List<QBezierCurve> curves){
+        source.append(INDENT).append("/** The name of each curve */\n");
+        source.append(INDENT).append("public static final String[] SEGMENT_NAMES = {");
+
+        for(int i = 0; i < curves.size(); i++){
+            source.append(i == 0 ? "" : ", ").append('"').append(escape(curves.get(i).getName())).append('"');
+        }
+
+        source.append("};\n\n");
+    }
+
+    private void writeSegments(List<QBezierCurve> curves){
+        int count = curves.size();
+        double[] points = new double[count * 6];
+        double[] coefficients = new double[count * 4];
+        double[] lengths = new double[count];
+        double[] startDistances = new double[count];
+        double[] arcLengths = new double[count * (ARC_LENGTH_SAMPLES + 1)];
+        double distance = 0;
+
+        for(int i = 0; i < count; i++){
+            BezierSegment segment = curves.get(i).getSegment();
+            ArcLengthTable table = new ArcLengthTable(segment, ARC_LENGTH_SAMPLES);
+
+            points[i * 6] = segment.getP0x();
+            points[i * 6 + 1] = segment.getP0y();
+            points[i * 6 + 2] = segment.getP1x();
+            points[i * 6 + 3] = segment.getP1y();
+            points[i * 6 + 4] = segment.getP2x();
+            points[i * 6 + 5] = segment.getP2y();
+
+            coefficients[i * 4] = segment.getAx();
+            coefficients[i * 4 + 1] = segment.getAy();
+            coefficients[i * 4 + 2] = segment.getBx();
+            coefficients[i * 4 + 3] = segment.getBy();
+
+            for(int j = 0; j <= ARC_LENGTH_SAMPLES; j++){
+                arcLengths[i * (ARC_LENGTH_SAMPLES + 1) + j] = table.distanceAtTime((double) j / ARC_LENGTH_SAMPLES);
+            }
+
+            lengths[i] = table.getLength();
+            startDistances[i] = distance;
+            distance += table.getLength();
+        }
+
+        writeArray("SEGMENT_POINTS", "P0x, P0y, P1x, P1y, P2x, P2y of each curve", points);
+        writeArray("SEGMENT_COEFFICIENTS", "ax, ay, bx, by of each curve", coefficients);
+        writeArray("SEGMENT_LENGTHS", "The length of each curve", lengths);
+        writeArray("SEGMENT_START_DISTANCES", "The distance along the path to the start of each curve", startDistances);
+        writeArray("ARC_LENGTHS", "The arc length table of each curve", arcLengths);
+    }
+
+    private void writeTrajectory(Trajectory trajectory){
+        int size = trajectory.size();
+        double[][] columns = new double[6][size];
+
+        for(int i = 0; i < size; i++){
+            columns[0][i] = trajectory.getTime(i);
+            columns[1][i] = trajectory.getX(i);
+            columns[2][i] = trajectory.getY(i);
+            columns[3][i] = trajectory.getHeading(i);
+            columns[4][i] = trajectory.getVelocity(i);
+            columns[5][i] = trajectory.getCurvature(i);
+        }
+
+        writeArray("TIME", "The time of each state", columns[0]);
+        writeArray("X", "The x position of each state", columns[1]);
+        writeArray("Y", "The y position of each state", columns[2]);
+        writeArray("HEADING", "The heading of each state", columns[3]);
+        writeArray("VELOCITY", "The velocity of each state (ft/s)", columns[4]);
+        writeArray("CURVATURE", "The curvature of each state (1 / radius)", columns[5]);
+    }
+
+    /**
+     * Writes the array directly into the class if it is small enough, otherwise
+     * writes it in chunks that are joined when the class is loaded
+     */
+    private void writeArray(String name, String doc, double[] values){
+        source.append(INDENT).append("/** ").append(doc).append(" */\n");
+        source.append(INDENT).append("public static final double[] ").append(name).append(" = ");
+
+        if(values.length <= CHUNK_SIZE && inlineValues + values.length <= CHUNK_SIZE){
+            inlineValues += values.length;
+            writeLiteral(source, values, 0, values.length, INDENT);
+            source.append(";\n\n");
+            return;
+        }
+
+        joinNeeded = true;
+        source.append("join(");
+
+        for(int chunk = 0; chunk * CHUNK_SIZE < values.length; chunk++){
+            String chunkName = name + '_' + chunk;
+            int start = chunk * CHUNK_SIZE;
+            int end = Math.min(values.length, start + CHUNK_SIZE);
+
+            source.append(chunk == 0 ? "" : ", ").append(chunkName).append(".VALUES");
+
+            chunkClasses.append('\n');
+            chunkClasses.append(INDENT).append("private static final class ").append(chunkName).append(" {\n");
+            chunkClasses.append(INDENT).append(INDENT).append("static final double[] VALUES = ");
+            writeLiteral(chunkClasses, values, start, end, INDENT + INDENT);
+            chunkClasses.append(";\n");
+            chunkClasses.append(INDENT).append("}\n");
+        }
+
+        source.append(");\n\n");
+    }
+
+    private static void writeLiteral(StringBuilder out, double[] values, int start, int end, String indent){
+        out.append('{');
+
+        for(int i = start; i < end; i++){
+            if((i - start) % VALUES_PER_LINE == 0){
+                out.append('\n').append(indent).append(INDENT);
+            }
+
+            out.append(toLiteral(values[i]));
+
+            if(i < end - 1){
+                out.append((i - start) % VALUES_PER_LINE == VALUES_PER_LINE - 1 ? "," : ", ");
+            }
+        }
+
+        out.append('\n').append(indent).append('}');
+    }
+
+    private void writeJoin(){
+        source.append(INDENT).append("private static double[] join(double[]... chunks) {\n");
+        source.append(INDENT).append(INDENT).append("int length = 0;\n");
+        source.append(INDENT).append(INDENT).append("for (double[] chunk : chunks) length += chunk.length;\n\n");
+        source.append(INDENT).append(INDENT).append("double[] result = new double[length];\n");
+        source.append(INDENT).append(INDENT).append("int offset = 0;\n");
+        source.append(INDENT).append(INDENT).append("for (double[] chunk : chunks) {\n");
+        source.append(INDENT).append(INDENT).append(INDENT)
+                .append("System.arraycopy(chunk, 0, result, offset, chunk.length);\n");
+        source.append(INDENT).append(INDENT).append(INDENT).append("offset += chunk.length;\n");
+        source.append(INDENT).append(INDENT).append("}\n");
+        source.append(INDENT).append(INDENT).append("return result;\n");
+        source.append(INDENT).append("}\n");
+    }
+
+    /**
+     * {@link Double#toString(double)} is exact when read back, and is a valid Java literal for finite values
+     */
+    private static String toLiteral(double value){
+        if(!Double.isFinite(value))
+            throw new IllegalArgumentException("Can not export a value that is not finite: " + value);
+
+        return Double.toString(value);
+    }
+
+    private static String escape(String text){
+        StringBuilder result = new StringBuilder();
+
+        for(char c : text.toCharArray()){
+            if(c == '"' || c == '\\'){
+                result.append('\\').append(c);
+            }else if(c < ' ' || c > '~'){
+                result.append(String.format("\\u%04x", (int) c));
+            }else{
+                result.append(c);
+            }
+        }
+
+        return result.toString();
+    }
+
+    private static boolean isQualifiedName(String name){
+        for(String part : name.split("\\.", -1)){
+            if(!isIdentifier(part))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return true if the name can be used as a class name or a part of a package name.
+     * Keywords and literals (ex: new, true) are not allowed
+     */
+    private static boolean isIdentifier(String name){
+        return name.indexOf('.') < 0 && SourceVersion.isName(name);
+    }
+}
@@ -0,0 +1,123 @@
+package org.inspirerobotics.bcd.planner.trajectory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read only view of a file written by the {@link TrajectoryExporter}. The file is memory mapped,
+ * so opening it does not read the records, and reading a record goes straight to the mapped
+ * memory without creating any objects. Records can be read in any order by their index.
+ *<p></p>
+ * The mapping stays valid after the file is closed, and is released when this object is garbage collected.
+ */
+public class MappedTrajectory {
+
+    private final MappedByteBuffer buffer;
+    private final TrajectoryFormat.Precision precision;
+    private final int recordSize;
+    private final int size;
+    private final double dt;
+
+    private MappedTrajectory(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+
+        if(buffer.capacity() < TrajectoryFormat.HEADER_SIZE || buffer.getInt(0) != TrajectoryFormat.MAGIC)
+            throw new IllegalArgumentException("Not a trajectory file");
+
+        short version = buffer.getShort(4);
+        if(version != TrajectoryFormat.VERSION)
+            throw new IllegalArgumentException("Unsupported trajectory version: " + version);
+
+        int fieldCount = buffer.get(7);
+        if(fieldCount != TrajectoryFormat.FIELD_COUNT)
+            throw new IllegalArgumentException("Unexpected number of values per record: " + fieldCount);
+
+        this.precision = TrajectoryFormat.Precision.fromBytes(buffer.get(6));
+        this.recordSize = precision.getRecordSize();
+        this.size = buffer.getInt(8);
+        this.dt = buffer.getDouble(16);
+
+        if(size < 0 || TrajectoryFormat.HEADER_SIZE + (long) size * recordSize > buffer.capacity())
+            throw new IllegalArgumentException("The trajectory file is truncated");
+    }
+
+    public static MappedTrajectory open(File file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            return new MappedTrajectory(buffer);
+        }
+    }
+
+    /**
+     * @param field one of the field offsets in {@link TrajectoryFormat}, such as {@link TrajectoryFormat#X}
+     * @return the value of the field in the record at the index
+     */
+    public double get(int index, int field){
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if(field < 0 || field >= TrajectoryFormat.FIELD_COUNT)
+            throw new IndexOutOfBoundsException("Field: " + field + ", Field count: " + TrajectoryFormat.FIELD_COUNT);
+
+        int offset = TrajectoryFormat.HEADER_SIZE + (index * recordSize) + (field * precision.getBytes());
+
+        if(precision == TrajectoryFormat.Precision.FLOAT32)
+            return buffer.getFloat(offset);
+
+        return buffer.getDouble(offset);
+    }
+
+    public double getTime(int index){
+        return get(index, TrajectoryFormat.TIME);
+    }
+
+    public double getX(int index){
+        return get(index, TrajectoryFormat.X);
+    }
+
+    public double getY(int index){
+        return get(index, TrajectoryFormat.Y);
+    }
+
+    public double getHeading(int index){
+        return get(index, TrajectoryFormat.HEADING);
+    }
+
+    public double getVelocity(int index){
+        return get(index, TrajectoryFormat.VELOCITY);
+    }
+
+    public double getCurvature(int index){
+        return get(index, TrajectoryFormat.CURVATURE);
+    }
+
+    /**
+     * @return the index of the record at the time, if the records are evenly spaced
+     */
+    public int indexAtTime(double time){
+        if(!(dt > 0))
+            throw new IllegalStateException("The records are not evenly spaced in time");
+
+        return Math.max(0, Math.min(size - 1, (int) Math.round(time / dt)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the time between the records, or 0 if they are not evenly spaced
+     */
+    public double getDt() {
+        return dt;
+    }
+
+    public TrajectoryFormat.Precision getPrecision() {
+        return precision;
+    }
+}
@@ -0,0 +1,51 @@
+package org.inspirerobotics.bcd.planner.trajectory;
+
+/**
+ * The limits of the robot used when generating a trajectory. All of the values are in feet and seconds.
+ */
+public class RobotModel {
+
+    public static final RobotModel DEFAULT = new RobotModel(5, 5, 5);
+
+    private final double maxVelocity;
+    private final double maxAcceleration;
+    private final double maxLateralAcceleration;
+
+    /**
+     * @param maxVelocity the top speed of the robot (ft/s)
+     * @param maxAcceleration how fast the robot can speed up or slow down (ft/s<sup>2</sup>)
+     * @param maxLateralAcceleration the most sideways (centripetal) acceleration allowed in a turn (ft/s<sup>2</sup>)
+     */
+    public RobotModel(double maxVelocity, double maxAcceleration, double maxLateralAcceleration) {
+        if(!(maxVelocity > 0) || !(maxAcceleration > 0) || !(maxLateralAcceleration > 0))
+            throw new IllegalArgumentException("The limits of the robot must be positive");
+
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxLateralAcceleration = maxLateralAcceleration;
+    }
+
+    /**
+     * @return the fastest the robot can go through a turn with the passed curvature (1 / radius)
+     */
+    public double getMaxVelocity(double curvature) {
+        double absCurvature = Math.abs(curvature);
+
+        if(absCurvature == 0)
+            return maxVelocity;
+
+        return Math.min(maxVelocity, Math.sqrt(maxLateralAcceleration / absCurvature));
+    }
+
+    public double getMaxVelocity() {
+        return maxVelocity;
+    }
+
+    public double getMaxAcceleration() {
+        return maxAcceleration;
+    }
+
+    public double getMaxLateralAcceleration() {
+        return maxLateralAcceleration;
+    }
+}
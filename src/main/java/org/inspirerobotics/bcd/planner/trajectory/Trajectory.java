@@ -0,0 +1,185 @@
+package org.inspirerobotics.bcd.planner.trajectory;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A time parameterized path, created by the {@link TrajectoryGenerator}. The samples are stored as
+ * columns (one array per value) in order of time. States between the samples are interpolated.
+ * Distances are in feet, times in seconds and angles in radians.
+ */
+public class Trajectory {
+
+    private final double[] times;
+    private final double[] distances;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private final double[] velocities;
+    private final double[] curvatures;
+
+    Trajectory(double[] times, double[] distances, double[] xs, double[] ys, double[] headings,
+               double[] velocities, double[] curvatures) {
+        this.times = times;
+        this.distances = distances;
+        this.xs = xs;
+        this.ys = ys;
+        this.headings = headings;
+        this.velocities = velocities;
+        this.curvatures = curvatures;
+    }
+
+    /**
+     * Finds the state of the robot at the passed time, interpolating between the samples.
+     * Times outside of the trajectory are clamped to the first and last samples. This does not allocate.
+     */
+    public void sample(double time, State out){
+        if(size() == 0)
+            throw new IllegalStateException("The trajectory is empty");
+
+        if(time <= times[0] || time >= getDuration()){
+            copySample(time <= times[0] ? 0 : size() - 1, out);
+            out.time = time;
+            return;
+        }
+
+        int index = Arrays.binarySearch(times, time);
+
+        if(index >= 0){
+            copySample(index, out);
+            return;
+        }
+
+        int upper = -index - 1;
+        int lower = upper - 1;
+        double fraction = (time - times[lower]) / (times[upper] - times[lower]);
+
+        out.time = time;
+        out.distance = lerp(distances, lower, fraction);
+        out.x = lerp(xs, lower, fraction);
+        out.y = lerp(ys, lower, fraction);
+        out.heading = headings[lower] + fraction * normalizeAngle(headings[upper] - headings[lower]);
+        out.velocity = lerp(velocities, lower, fraction);
+        out.curvature = lerp(curvatures, lower, fraction);
+    }
+
+    private void copySample(int index, State out){
+        out.time = times[index];
+        out.distance = distances[index];
+        out.x = xs[index];
+        out.y = ys[index];
+        out.heading = headings[index];
+        out.velocity = velocities[index];
+        out.curvature = curvatures[index];
+    }
+
+    private static double lerp(double[] values, int index, double fraction){
+        return values[index] + fraction * (values[index + 1] - values[index]);
+    }
+
+    static double normalizeAngle(double angle){
+        return Math.atan2(Math.sin(angle), Math.cos(angle));
+    }
+
+    /**
+     * Passes the state of the robot every dt seconds (from 0 to the end of the trajectory) to the consumer.
+     * The same state object is reused for every call, so copy it if it needs to be kept.
+     */
+    public void forEachState(double dt, Consumer<State> consumer){
+        if(!(dt > 0))
+            throw new IllegalArgumentException("dt must be positive: " + dt);
+
+        State state = new State();
+        int count = getSampleCount(dt);
+
+        for(int i = 0; i < count; i++){
+            sample(Math.min(i * dt, getDuration()), state);
+            consumer.accept(state);
+        }
+    }
+
+    /**
+     * @return a copy of this trajectory with a sample every dt seconds
+     */
+    public Trajectory resample(double dt){
+        if(!(dt > 0))
+            throw new IllegalArgumentException("dt must be positive: " + dt);
+
+        int count = getSampleCount(dt);
+        double[][] columns = new double[7][count];
+        State state = new State();
+
+        for(int i = 0; i < count; i++){
+            sample(Math.min(i * dt, getDuration()), state);
+            columns[0][i] = state.time;
+            columns[1][i] = state.distance;
+            columns[2][i] = state.x;
+            columns[3][i] = state.y;
+            columns[4][i] = state.heading;
+            columns[5][i] = state.velocity;
+            columns[6][i] = state.curvature;
+        }
+
+        return new Trajectory(columns[0], columns[1], columns[2], columns[3], columns[4], columns[5], columns[6]);
+    }
+
+    /**
+     * @return the number of samples needed to cover the trajectory every dt seconds, including both ends
+     */
+    private int getSampleCount(double dt){
+        return size() == 0 ? 0 : (int) Math.ceil(getDuration() / dt - 1e-9) + 1;
+    }
+
+    public double getDuration(){
+        return size() == 0 ? 0 : times[size() - 1];
+    }
+
+    public double getLength(){
+        return size() == 0 ? 0 : distances[size() - 1];
+    }
+
+    public int size(){
+        return times.length;
+    }
+
+    public double getTime(int index){
+        return times[index];
+    }
+
+    public double getDistance(int index){
+        return distances[index];
+    }
+
+    public double getX(int index){
+        return xs[index];
+    }
+
+    public double getY(int index){
+        return ys[index];
+    }
+
+    public double getHeading(int index){
+        return headings[index];
+    }
+
+    public double getVelocity(int index){
+        return velocities[index];
+    }
+
+    public double getCurvature(int index){
+        return curvatures[index];
+    }
+
+    /**
+     * The state of the robot at a point in time
+     */
+    public static class State{
+        public double time;
+        public double distance;
+        public double x;
+        public double y;
+        public double heading;
+        public double velocity;
+        public double curvature;
+    }
+}
@@ -0,0 +1,81 @@
+package org.inspirerobotics.bcd.planner.trajectory;
+
+import org.inspirerobotics.bcd.planner.ui.Gui;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes trajectories in the binary {@link TrajectoryFormat}, which can be read
+ * without parsing by {@link MappedTrajectory}. This class is designed to be run
+ * on a separate thread (apart from the UI thread).
+ */
+public class TrajectoryExporter {
+
+    /**
+     * The time between exported records, the period of the robot's control loop
+     */
+    public static final double DEFAULT_DT = .02;
+
+    public static void export(File file, Trajectory trajectory, TrajectoryFormat.Precision precision){
+        try {
+            write(file, trajectory.resample(DEFAULT_DT), DEFAULT_DT, precision);
+        } catch(IOException | RuntimeException e) {
+            e.printStackTrace();
+            Gui.showError("Failed to export the trajectory!", e);
+        }
+    }
+
+    /**
+     * Writes every sample of the trajectory to the file
+     *
+     * @param dt the time between the samples, or 0 if they are not evenly spaced
+     */
+    public static void write(File file, Trajectory trajectory, double dt, TrajectoryFormat.Precision precision)
+            throws IOException {
+        long size = TrajectoryFormat.HEADER_SIZE + (long) trajectory.size() * precision.getRecordSize();
+
+        if(size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The trajectory is too large to export: " + trajectory.size());
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(TrajectoryFormat.MAGIC);
+        buffer.putShort(TrajectoryFormat.VERSION);
+        buffer.put((byte) precision.getBytes());
+        buffer.put((byte) TrajectoryFormat.FIELD_COUNT);
+        buffer.putInt(trajectory.size());
+        buffer.putInt(0);
+        buffer.putDouble(dt);
+
+        for(int i = 0; i < trajectory.size(); i++){
+            put(buffer, trajectory.getTime(i), precision);
+            put(buffer, trajectory.getX(i), precision);
+            put(buffer, trajectory.getY(i), precision);
+            put(buffer, trajectory.getHeading(i), precision);
+            put(buffer, trajectory.getVelocity(i), precision);
+            put(buffer, trajectory.getCurvature(i), precision);
+        }
+
+        buffer.flip();
+
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static void put(ByteBuffer buffer, double value, TrajectoryFormat.Precision precision){
+        if(precision == TrajectoryFormat.Precision.FLOAT32){
+            buffer.putFloat((float) value);
+        }else{
+            buffer.putDouble(value);
+        }
+    }
+}
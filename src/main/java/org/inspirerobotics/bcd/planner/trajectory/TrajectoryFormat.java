@@ -0,0 +1,74 @@
+package org.inspirerobotics.bcd.planner.trajectory;
+
+/**
+ * The layout of a binary trajectory file. Everything is little-endian.
+ *<p></p>
+ * The file starts with a {@value #HEADER_SIZE} byte header:
+ * <pre>
+ *  offset  size  value
+ *       0     4  magic ("BCDT")
+ *       4     2  format version
+ *       6     1  bytes per value (4 = float32, 8 = float64)
+ *       7     1  values per record ({@value #FIELD_COUNT})
+ *       8     4  number of records
+ *      12     4  reserved (0)
+ *      16     8  time between records in seconds as a float64 (0 if they are not evenly spaced)
+ * </pre>
+ * The header is followed by one fixed-width record per sample, made of time, x, y, heading,
+ * velocity and curvature (in seconds, feet and radians).
+ */
+public final class TrajectoryFormat {
+
+    public static final int MAGIC = 'B' | ('C' << 8) | ('D' << 16) | ('T' << 24);
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+    public static final int FIELD_COUNT = 6;
+
+    public static final int TIME = 0;
+    public static final int X = 1;
+    public static final int Y = 2;
+    public static final int HEADING = 3;
+    public static final int VELOCITY = 4;
+    public static final int CURVATURE = 5;
+
+    public static final String EXTENSION = "traj";
+
+    private TrajectoryFormat() {
+
+    }
+
+    public enum Precision{
+        FLOAT32(4), FLOAT64(8);
+
+        private final int bytes;
+
+        Precision(int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the number of bytes in one value
+         */
+        public int getBytes() {
+            return bytes;
+        }
+
+        public int getRecordSize() {
+            return bytes * FIELD_COUNT;
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase();
+        }
+
+        static Precision fromBytes(int bytes){
+            for(Precision precision : values()){
+                if(precision.bytes == bytes)
+                    return precision;
+            }
+
+            throw new IllegalArgumentException("Unknown value size: " + bytes);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.inspirerobotics.bcd.planner.trajectory;
+
+import org.inspirerobotics.bcd.planner.curve.ArcLengthTable;
+import org.inspirerobotics.bcd.planner.curve.BezierSegment;
+import org.inspirerobotics.bcd.planner.curve.Path;
+import org.inspirerobotics.bcd.planner.curve.QBezierCurve;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Creates the fastest trajectory along a list of curves that stays inside the limits of a {@link RobotModel}.
+ *<p></p>
+ * The curves are sampled every {@link #getSpacing()} feet (using the {@link ArcLengthTable} of each curve),
+ * and each sample is limited to the speed where the lateral acceleration of the turn is at its max
+ * (v = sqrt(a<sub>lat</sub> / |&kappa;|)). A forward pass then limits how fast the robot can speed up
+ * (v<sub>i</sub><sup>2</sup> &le; v<sub>i-1</sub><sup>2</sup> + 2a&Delta;s), and a backward pass limits how fast it
+ * can slow down, so the robot starts and ends at rest. Finally the time between samples is found from the
+ * average velocity. Everything is stored in primitive arrays, so this is fast enough to run every frame.
+ *<p></p>
+ * The curves do not have to be joined. If a curve does not start where the last one ended, the robot stops at
+ * the end of the last curve and both ends are kept as samples at the same distance, so the trajectory jumps
+ * across the gap while the robot is at rest. Where joined curves meet at an angle, the turn is treated as if
+ * it happens over one spacing, and the speed at the corner is limited by that curvature like any other turn.
+ */
+public class TrajectoryGenerator {
+
+    public static final double DEFAULT_SPACING = .05;
+
+    /**
+     * Curves whose start is further than this (in feet) from the end of the last curve are not joined
+     */
+    private static final double GAP_TOLERANCE = 1e-6;
+
+    private final RobotModel model;
+    private final double spacing;
+
+    public TrajectoryGenerator(RobotModel model) {
+        this(model, DEFAULT_SPACING);
+    }
+
+    /**
+     * @param spacing the distance between samples in feet
+     */
+    public TrajectoryGenerator(RobotModel model, double spacing) {
+        if(!(spacing > 0))
+            throw new IllegalArgumentException("Spacing must be positive: " + spacing);
+
+        this.model = model;
+        this.spacing = spacing;
+    }
+
+    public Trajectory generate(List<QBezierCurve> curves){
+        double[] startDistances = new double[curves.size()];
+
+        for(int i = 1; i < startDistances.length; i++){
+            startDistances[i] = startDistances[i - 1] + curves.get(i - 1).getLength();
+        }
+
+        return generate(curves, i -> startDistances[i]);
+    }
+
+    /**
+     * Generates the trajectory along the curves of a path, taking the distance at the start of each curve from the
+     * path. The path is not thread safe, so this should be called from the thread that edits the curves
+     */
+    public Trajectory generate(Path path){
+        List<QBezierCurve> curves = new ArrayList<>(path.size());
+
+        for(int i = 0; i < path.size(); i++){
+            curves.add(path.getCurve(i));
+        }
+
+        return generate(curves, path::getStartDistance);
+    }
+
+    private Trajectory generate(List<QBezierCurve> curves, IntToDoubleFunction startDistances){
+        BezierSegment[] segments = curves.stream().map(QBezierCurve::getSegment).toArray(BezierSegment[]::new);
+        int size = countSamples(segments);
+        double[] times = new double[size];
+        double[] distances = new double[size];
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        double[] headings = new double[size];
+        double[] velocities = new double[size];
+        double[] curvatures = new double[size];
+        double[] velocityLimits = new double[size];
+
+        Arrays.fill(velocityLimits, Double.POSITIVE_INFINITY);
+
+        int index = 0;
+        BezierSegment previous = null;
+
+        for(int curveIndex = 0; curveIndex < segments.length; curveIndex++){
+            BezierSegment segment = segments[curveIndex];
+            double startDistance = startDistances.applyAsDouble(curveIndex);
+            ArcLengthTable table = segment.getArcLengthTable();
+            int steps = getSteps(segment.getLength());
+
+            if(steps == 0)
+                continue;
+
+            boolean joined = previous != null && isJoined(previous, segment);
+
+            if(previous != null && !joined){
+                velocityLimits[index - 1] = 0;
+                velocityLimits[index] = 0;
+            }else if(joined){
+                double turn = Trajectory.normalizeAngle(calcHeading(segment, 0) - headings[index - 1]);
+                velocityLimits[index - 1] = model.getMaxVelocity(turn / spacing);
+            }
+
+            //The end of a joined curve is the start of the next, so the start is only added when it is not joined
+            for(int i = joined ? 1 : 0; i <= steps; i++){
+                double curveDistance = segment.getLength() * i / steps;
+                double time = table.timeAtDistance(curveDistance);
+
+                //The start of a curve that is not joined is at the same distance as the end of the last curve
+                distances[index] = i == 0 && index > 0 ? distances[index - 1] : startDistance + curveDistance;
+                xs[index] = segment.getX(time);
+                ys[index] = segment.getY(time);
+                headings[index] = calcHeading(segment, time);
+                curvatures[index] = segment.getCurvature(time);
+                index++;
+            }
+
+            previous = segment;
+        }
+
+        limitVelocities(distances, curvatures, velocityLimits, velocities);
+        calcTimes(distances, velocities, times);
+
+        return new Trajectory(times, distances, xs, ys, headings, velocities, curvatures);
+    }
+
+    private int countSamples(BezierSegment[] segments){
+        int count = 0;
+        BezierSegment previous = null;
+
+        for(BezierSegment segment : segments){
+            int steps = getSteps(segment.getLength());
+
+            if(steps > 0){
+                count += previous != null && isJoined(previous, segment) ? steps : steps + 1;
+                previous = segment;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return true if the next curve starts where the previous curve ends
+     */
+    private static boolean isJoined(BezierSegment previous, BezierSegment next){
+        return Math.hypot(next.getP0x() - previous.getP2x(), next.getP0y() - previous.getP2y()) <= GAP_TOLERANCE;
+    }
+
+    private static double calcHeading(BezierSegment segment, double time){
+        return Math.atan2(segment.getDerivativeY(time), segment.getDerivativeX(time));
+    }
+
+    /**
+     * @return the number of gaps between the samples of a curve, or 0 if the curve has no length
+     */
+    private int getSteps(double length){
+        return length > 0 ? (int) Math.ceil(length / spacing) : 0;
+    }
+
+    private void limitVelocities(double[] distances, double[] curvatures, double[] limits, double[] velocities){
+        int size = velocities.length;
+
+        for(int i = 0; i < size; i++){
+            velocities[i] = Math.min(limits[i], model.getMaxVelocity(curvatures[i]));
+        }
+
+        if(size == 0)
+            return;
+
+        double twiceAcceleration = 2 * model.getMaxAcceleration();
+        velocities[0] = 0;
+        velocities[size - 1] = 0;
+
+        for(int i = 1; i < size; i++){
+            double reachable = Math.sqrt(velocities[i - 1] * velocities[i - 1] +
+                    twiceAcceleration * (distances[i] - distances[i - 1]));
+            velocities[i] = Math.min(velocities[i], reachable);
+        }
+
+        for(int i = size - 2; i >= 0; i--){
+            double reachable = Math.sqrt(velocities[i + 1] * velocities[i + 1] +
+                    twiceAcceleration * (distances[i + 1] - distances[i]));
+            velocities[i] = Math.min(velocities[i], reachable);
+        }
+    }
+
+    /**
+     * The acceleration is constant between two samples, so the time taken is the distance over the average velocity.
+     * A gap with no velocity is either a path shorter than the spacing, where the robot speeds up for half of the
+     * distance and slows down for the other half, or the jump between curves that are not joined, which takes no time.
+     */
+    private void calcTimes(double[] distances, double[] velocities, double[] times){
+        for(int i = 1; i < times.length; i++){
+            double averageVelocity = (velocities[i - 1] + velocities[i]) / 2;
+            double distance = distances[i] - distances[i - 1];
+
+            if(averageVelocity > 0){
+                times[i] = times[i - 1] + distance / averageVelocity;
+            }else{
+                times[i] = times[i - 1] + 2 * Math.sqrt(distance / model.getMaxAcceleration());
+            }
+        }
+    }
+
+    public RobotModel getModel() {
+        return model;
+    }
+
+    public double getSpacing() {
+        return spacing;
+    }
+}
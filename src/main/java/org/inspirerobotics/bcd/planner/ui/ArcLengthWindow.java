@@ -1,30 +1,67 @@
 package org.inspirerobotics.bcd.planner.ui;
 
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.inspirerobotics.bcd.planner.Images;
 import org.inspirerobotics.bcd.planner.curve.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * The window for testing arc lengths.
  * This class also contains the code to create the GUI for the window
  */
 public class ArcLengthWindow {
 
+    private static final int REPORT_CORPUS_SIZE = 1000;
+
     private final QBezierCurve curve;
+    private final double referenceLength;
+    private final List<ArcLengthSolver> solvers = new ArrayList<>();
+    private final List<Service<ArcLengthSolver.Result>> services = new ArrayList<>();
+
+    /**
+     * True while Run All is running the solvers one after another. The buttons of the solvers are
+     * disabled while this is true, so no other solver can run at the same time
+     */
+    private final BooleanProperty runningSequentially = new SimpleBooleanProperty();
+
+    private Stage stage;
+
+    private CheckBox parallel;
+    private Button report;
+    private ProgressBar reportProgress;
+    private Label reportStatus;
 
     public ArcLengthWindow(QBezierCurve curve) {
         this.curve = curve;
+        this.referenceLength = new ReferenceSolver().solve(curve);
 
-        Stage stage = new Stage();
+        stage = new Stage();
         Scene scene = createScene();
 
         initStageSettings(stage);
@@ -36,30 +73,161 @@ public class ArcLengthWindow {
     private Scene createScene() {
         VBox vbox = new VBox();
         Node titleNode = createTitleLabel();
+        Node runAllNode = createRunAllNode();
 
         Node bruteForceNodeQuick = createSolverNode(new BruteForceArcSolver(.01));
         Node bruteForceNodeSlow = createSolverNode(new BruteForceArcSolver(.0001));
         Node controlPolygon = createSolverNode(new ControlPolygonSolver());
         Node integrationSolver = createSolverNode(new IntegrationSolver());
+        Node gaussLegendre = createSolverNode(new GaussLegendreSolver(8));
+        Node adaptive = createSolverNode(new AdaptiveSubdivisionSolver(.0001));
+        Node automatic = createSolverNode(new AutoArcLengthSolver(.0001));
+        Node cached = createSolverNode(new CachingArcLengthSolver(new BruteForceArcSolver(.0001), 1024));
 
         vbox.setPadding(new Insets(15));
         vbox.setSpacing(15);
-        vbox.getChildren().addAll(titleNode, bruteForceNodeQuick, bruteForceNodeSlow,
-                controlPolygon, integrationSolver);
-        return new Scene(vbox);
+        vbox.getChildren().addAll(titleNode, runAllNode, bruteForceNodeQuick, bruteForceNodeSlow,
+                controlPolygon, integrationSolver, gaussLegendre, adaptive, automatic, cached);
+
+        ScrollPane scrollPane = new ScrollPane(vbox);
+        scrollPane.setFitToWidth(true);
+
+        return new Scene(scrollPane);
+    }
+
+    private Node createRunAllNode() {
+        Button runAll = new Button("Run All");
+        runAll.setOnAction(event -> runAll());
+
+        parallel = new CheckBox("Parallel");
+        parallel.setTooltip(new Tooltip(
+                "Runs every solver at the same time. This is faster, but the solvers compete for the CPU"));
+
+        report = new Button("Export Accuracy Report");
+        report.setOnAction(event -> exportAccuracyReport());
+
+        reportProgress = new ProgressBar(0);
+        reportProgress.setPrefWidth(80);
+        reportStatus = new Label();
+
+        HBox hBox = new HBox(runAll, parallel, report, reportProgress, reportStatus);
+        hBox.setSpacing(10);
+        return hBox;
+    }
+
+    /**
+     * Runs every solver, either all at once on the fork join pool or one after
+     * another so that each solver has the CPU to itself
+     */
+    private void runAll() {
+        stopSequence();
+        services.forEach(Service::cancel);
+
+        if(parallel.isSelected()){
+            services.forEach(Service::restart);
+        }else{
+            runningSequentially.set(true);
+            runSequentially(0);
+        }
+    }
+
+    /**
+     * Compares every solver against the reference solver on this curve and a corpus
+     * of random curves, and saves the results as a CSV file
+     */
+    private void exportAccuracyReport() {
+        var extensionFilter = new FileChooser.ExtensionFilter("CSV File", "*.csv");
+        FileChooser fileChooser = new FileChooser();
+
+        fileChooser.setTitle("BCD: Export Accuracy Report");
+        fileChooser.getExtensionFilters().add(extensionFilter);
+        fileChooser.setInitialFileName("accuracy.csv");
+
+        File file = fileChooser.showSaveDialog(stage);
+
+        if(file == null)
+            return;
+
+        List<QBezierCurve> corpus = AccuracyReport.generateCorpus(REPORT_CORPUS_SIZE, 4283);
+        corpus.add(curve.copy());
+
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws IOException {
+                AccuracyReport accuracyReport = AccuracyReport.create(corpus, solvers,
+                        done -> updateProgress(done, solvers.size()));
+                Files.writeString(file.toPath(), accuracyReport.toCSV());
+                return null;
+            }
+        };
+
+        task.setOnSucceeded(event -> reportStatus.setText("Saved " + file.getName()));
+        task.setOnFailed(event -> {
+            Throwable e = task.getException();
+
+            reportStatus.setText("Failed");
+            e.printStackTrace();
+            Gui.showError("Failed to export the accuracy report!",
+                    e instanceof Exception ? (Exception) e : new RuntimeException(e));
+        });
+
+        report.disableProperty().bind(task.runningProperty());
+        reportProgress.progressProperty().bind(Bindings.max(0, task.progressProperty()));
+        reportStatus.setText("Exporting...");
+
+        ForkJoinPool.commonPool().execute(task);
     }
 
-    private Node createSolverNode(ArcLengthSolver bruteForceSolver) {
+    /**
+     * Runs the solver at the index, and the next one once it has succeeded or failed, so a failing
+     * solver does not stop the rest of the run. If a solver is cancelled the whole run is stopped
+     */
+    private void runSequentially(int index) {
+        if(index >= services.size()){
+            runningSequentially.set(false);
+            return;
+        }
+
+        Service<ArcLengthSolver.Result> service = services.get(index);
+        EventHandler<WorkerStateEvent> next = event -> {
+            setHandlers(service, null, null);
+            runSequentially(index + 1);
+        };
+
+        setHandlers(service, next, event -> stopSequence());
+        service.restart();
+    }
+
+    /**
+     * Stops running the solvers one after another. The solver that is running is left to finish
+     */
+    private void stopSequence(){
+        services.forEach(service -> setHandlers(service, null, null));
+        runningSequentially.set(false);
+    }
+
+    private static void setHandlers(Service<?> service, EventHandler<WorkerStateEvent> onFinished,
+                                    EventHandler<WorkerStateEvent> onCancelled){
+        service.setOnSucceeded(onFinished);
+        service.setOnFailed(onFinished);
+        service.setOnCancelled(onCancelled);
+    }
+
+    private Node createSolverNode(ArcLengthSolver solver) {
         VBox vBox = new VBox();
         vBox.setStyle("-fx-background-color:#EBEAEA");
         vBox.setPadding(new Insets(5));
 
-        Label title = new Label(bruteForceSolver.getName());
+        Label title = new Label(solver.getName());
         title.setFont(Font.font(16));
 
+        Service<ArcLengthSolver.Result> service = ArcLengthTask.createService(curve, solver);
+        service.setExecutor(ForkJoinPool.commonPool());
+        services.add(service);
+        solvers.add(solver);
+
         ProgressBar bar = new ProgressBar();
-        bar.setProgress(0); 
-        Service<ArcLengthSolver.Result> service = ArcLengthTask.createService(curve, bruteForceSolver, bar);
+        bar.progressProperty().bind(Bindings.max(0, service.progressProperty()));
 
         Button button = createTaskButton(service);
         Label result = createResultPane(service);
@@ -70,10 +238,14 @@ public class ArcLengthWindow {
 
     private Label createResultPane(Service<ArcLengthSolver.Result> service) {
         Label label = new Label("Result: ");
-        service.setOnSucceeded(event -> {
-            ArcLengthSolver.Result result = service.getValue();
-            label.setText(String.format("Result (time=%2.3f ms, avg=%3.5f)", result.time, result.avgResult));
-            service.reset();
+        service.valueProperty().addListener((observable, oldValue, result) -> {
+            if(result == null)
+                return;
+
+            label.setText(String.format("Result (avg=%3.5f, error=%.2e, %,.0f ops/s)%n" +
+                            "Time per call (mean=%.1f ns, p50=%.1f ns, p99=%.1f ns, max=%.1f ns)",
+                    result.avgResult, Math.abs(result.avgResult - referenceLength), result.getOpsPerSecond(),
+                    result.meanTime, result.medianTime, result.p99Time, result.maxTime));
         });
 
         return label;
@@ -81,14 +253,10 @@ public class ArcLengthWindow {
 
     private Button createTaskButton(Service<ArcLengthSolver.Result> service) {
         Button startTest = new Button("Start");
+        startTest.disableProperty().bind(runningSequentially);
         startTest.setOnAction(event -> {
-            if(!service.isRunning()){
-                startTest.setText("Restart");
-                service.start();
-            }else{
-                service.cancel();
-                service.restart();
-            }
+            startTest.setText("Restart");
+            service.restart();
         });
 
         return startTest;
@@ -98,10 +266,13 @@ public class ArcLengthWindow {
         Label title = new Label("Arc Length: " + curve.getName());
         title.setFont(Font.font(25));
 
-        Label subtitle = new Label("Curves per test:  " + ArcLengthTask.COUNT);
-        title.setFont(Font.font(16));
+        Label subtitle = new Label(String.format("Curves per test: %d (after %d warmup curves)",
+                ArcLengthTask.COUNT, ArcLengthTask.WARMUP_COUNT));
+        subtitle.setFont(Font.font(16));
+
+        Label reference = new Label(String.format("Reference length: %3.10f", referenceLength));
 
-        return new VBox(title, subtitle);
+        return new VBox(title, subtitle, reference);
     }
 
     private void initStageSettings(Stage stage) {
@@ -110,6 +281,6 @@ public class ArcLengthWindow {
         stage.setResizable(false);
 
         stage.setWidth(575);
-        stage.setHeight(600);
+        stage.setHeight(800);
     }
 }
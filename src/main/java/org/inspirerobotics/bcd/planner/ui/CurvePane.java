@@ -180,6 +180,10 @@ public class CurvePane extends VBox {
         }
     }
 
+    void select(QBezierCurve curve) {
+        choices.getSelectionModel().select(curve);
+    }
+
     public QBezierCurve getCurrentCurve() {
         return currentCurve;
     }
@@ -9,15 +9,20 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineJoin;
 import javafx.scene.text.Font;
 import javafx.scene.transform.NonInvertibleTransformException;
 import org.inspirerobotics.bcd.planner.Images;
+import org.inspirerobotics.bcd.planner.curve.CurveFlattener;
+import org.inspirerobotics.bcd.planner.curve.CurveIndex;
+import org.inspirerobotics.bcd.planner.curve.CurveProjection;
+import org.inspirerobotics.bcd.planner.curve.Path;
+import org.inspirerobotics.bcd.planner.curve.Polyline;
 import org.inspirerobotics.bcd.planner.curve.QBezierCurve;
-import org.inspirerobotics.bcd.planner.curve.Simulation;
+import org.inspirerobotics.bcd.planner.simulation.SimulationState;
 
 import java.util.HashSet;
 import java.util.LinkedHashSet;
-import java.util.function.Consumer;
 
 /**
  * The Main component of the GUI - it draws the curves and the picture of the field
@@ -30,11 +35,26 @@ import java.util.function.Consumer;
 public class FieldPane extends Canvas{
 
     private static final int TRANSLATE_SPEED = 5;
+
+    /**
+     * How close (in feet) a click has to be to a point or a curve to select it
+     */
+    private static final double CLICK_RADIUS = 1.5;
+
+    /**
+     * How far (in pixels) the drawn lines are allowed to be from the real curves
+     */
+    private static final double FLATTEN_TOLERANCE_PIXELS = .25;
     private final HashSet<KeyCode> keysDown = new LinkedHashSet<>();
     private final Gui gui;
 
+    private final CurveIndex curveIndex;
+
+    private CurveFlattener flattener;
+
     public FieldPane(Gui gui) {
         this.gui = gui;
+        this.curveIndex = new CurveIndex(gui.getCurves());
 
         this.getGraphicsContext2D().scale(.75, .75);
         this.setFocusTraversable(true);
@@ -53,45 +73,43 @@ public class FieldPane extends Canvas{
     }
 
     private void onDrag(MouseEvent mouseEvent) {
-        double clickRadius = 1.5;//Note: This is feet because the click gets converted into feet later
+        Point2D click = toFeet(mouseEvent);
+        CurveIndex.Handle draggedPoint = curveIndex.findNearestHandle(click.getX(), click.getY(), CLICK_RADIUS);
 
-        Point2D click = new Point2D(mouseEvent.getX(), mouseEvent.getY());
-        try {
-            click = getGraphicsContext2D().getTransform().inverseTransform(click);
-        } catch(NonInvertibleTransformException e) {
-            e.printStackTrace();
+        if(draggedPoint != null){
+            draggedPoint.setPoint(click);
+            gui.getScene().getCurvePane().syncCurveBoxes();
         }
+    }
 
-        click = click.multiply(1.0 / Images.PIXELS_PER_FOOT);
+    private void onClick(MouseEvent mouseEvent) {
+        this.requestFocus();
 
-        double maxDistance = clickRadius;
-        Consumer<Point2D> draggedPoint = null;
+        if(!mouseEvent.isStillSincePress())
+            return;
 
-        for(QBezierCurve curve : gui.getCurves()){
-            if(curve.getStart().distance(click) < maxDistance){
-                maxDistance = curve.getStart().distance(click);
-                draggedPoint = curve::setStart;
-            }
+        Point2D click = toFeet(mouseEvent);
 
-            if(curve.getControlPoint().distance(click) < maxDistance){
-                maxDistance = curve.getControlPoint().distance(click);
-                draggedPoint = curve::setControlPoint;
-            }
+        //Clicking on the body of a curve (and not one of its points) selects it
+        if(curveIndex.findNearestHandle(click.getX(), click.getY(), CLICK_RADIUS) != null)
+            return;
 
-            if(curve.getEnd().distance(click) < maxDistance){
-                maxDistance = curve.getEnd().distance(click);
-                draggedPoint = curve::setEnd;
-            }
-        }
+        CurveProjection projection = curveIndex.findNearestCurve(click.getX(), click.getY(), CLICK_RADIUS);
 
-        if(draggedPoint != null){
-            draggedPoint.accept(click);
-            gui.getScene().getCurvePane().syncCurveBoxes();
+        if(projection != null){
+            gui.getScene().getCurvePane().select(projection.curve);
         }
     }
 
-    private void onClick(MouseEvent mouseEvent) {
-        this.requestFocus();
+    private Point2D toFeet(MouseEvent mouseEvent) {
+        Point2D click = new Point2D(mouseEvent.getX(), mouseEvent.getY());
+        try {
+            click = getGraphicsContext2D().getTransform().inverseTransform(click);
+        } catch(NonInvertibleTransformException e) {
+            e.printStackTrace();
+        }
+
+        return click.multiply(1.0 / Images.PIXELS_PER_FOOT);
     }
 
     private void animate(long time) {
@@ -141,7 +159,7 @@ public class FieldPane extends Canvas{
         g.drawImage(Images.getFieldImage(), 0, 0);
         drawCurves(g);
 
-        drawSimulation(g, gui.getSimulation());
+        drawSimulation(g, gui.getSimulation().getState(System.nanoTime()));
         drawControls(g);
     }
 
@@ -152,17 +170,19 @@ public class FieldPane extends Canvas{
         g.fillText(helpText, 10, Images.getFieldImage().getHeight() + 25);
     }
 
-    private void drawSimulation(GraphicsContext g, Simulation simulation) {
-        if(simulation == null || simulation.getRobotPos() == null)
+    private void drawSimulation(GraphicsContext g, SimulationState state) {
+        if(state == null)
             return;
 
-        if(simulation.isRunning()){
-            drawRobot(g, pointToPixel(simulation.getRobotPos()), simulation.getAngle());
-            drawPoint(g, pointToPixel(simulation.getRobotPos()), Color.SPRINGGREEN);
-            drawPoint(g, pointToPixel(simulation.getCurrentPoint()), Color.BLUE);
+        if(state.running){
+            Point2D robotPos = pointToPixel(new Point2D(state.x, state.y));
+
+            drawRobot(g, robotPos, state.heading);
+            drawPoint(g, robotPos, Color.SPRINGGREEN);
+            drawPoint(g, pointToPixel(new Point2D(state.curvePointX, state.curvePointY)), Color.BLUE);
         }
 
-        drawSimulationInfo(g, simulation);
+        drawSimulationInfo(g, state);
     }
 
     private void drawRobot(GraphicsContext g, Point2D point, double angle) {
@@ -184,7 +204,7 @@ public class FieldPane extends Canvas{
     }
 
 
-    private void drawSimulationInfo(GraphicsContext g, Simulation simulation) {
+    private void drawSimulationInfo(GraphicsContext g, SimulationState state) {
         g.save();
 
         //Ignore current scale and transform because we want
@@ -193,24 +213,39 @@ public class FieldPane extends Canvas{
 
 
         g.setFill(Color.BLACK);
-        g.fillRect(0, getHeight() - 82, 152, 84);
+        g.fillRect(0, getHeight() - 132, 187, 134);
         g.setFill(Color.LIGHTGRAY);
-        g.fillRect(0, getHeight() - 80, 150, 80);
+        g.fillRect(0, getHeight() - 130, 185, 130);
 
         g.setFill(Color.BLACK);
         g.setFont(Font.font(18));
 
-        String angle = simulation.isRunning() ?
-                String.format("Angle: %2.2f", -simulation.getAngle() * 180 / Math.PI) : "";
-        String totalTime = String.format("Time: %2.2fs", simulation.getTimeRan() / 1000.0);
+        String angle = state.running ?
+                String.format("Angle: %2.2f", -state.heading * 180 / Math.PI) : "";
+        String totalTime = String.format("Time: %2.2fs", state.time);
 
         g.fillText(angle, 5, getHeight() - 10);
         g.fillText(totalTime, 5, getHeight() - 35);
-        g.fillText("Curve: " + simulation.getCurrentCurve(), 5, getHeight() - 60);
+        g.fillText("Curve: " + state.curveIndex, 5, getHeight() - 60);
+        g.fillText(String.format("Path: %2.2fs", gui.getTrajectory().getDuration()), 5, getHeight() - 85);
+        g.fillText(String.format("Dist: %2.1f/%2.1fft", calcPathDistance(state), gui.getPath().getLength()),
+                5, getHeight() - 110);
 
         g.restore();
     }
 
+    /**
+     * @return the distance from the start of the path to the point the simulation is at
+     */
+    private double calcPathDistance(SimulationState state) {
+        Path path = gui.getPath();
+
+        if(state.curveIndex >= path.size())
+            return path.getLength();
+
+        return path.getStartDistance(state.curveIndex) + state.curveDistance;
+    }
+
     private void drawCurves(GraphicsContext g) {
         gui.getCurves().forEach(curve -> {
             drawCurve(g, curve);
@@ -233,17 +268,35 @@ public class FieldPane extends Canvas{
     }
 
     private void drawCurve(GraphicsContext g, QBezierCurve curve) {
-        Point2D start = pointToPixel(curve.getStart());
-        Point2D control = pointToPixel(curve.getControlPoint());
-        Point2D end = pointToPixel(curve.getEnd());
+        Polyline polyline = getFlattener(g).flatten(curve);
 
-        g.setLineWidth(4);
+        g.save();
+
+        //The polyline is in feet, so scale the canvas instead of converting every point
+        g.scale(Images.PIXELS_PER_FOOT, Images.PIXELS_PER_FOOT);
+        g.setLineWidth(4 / Images.PIXELS_PER_FOOT);
+        g.setLineJoin(StrokeLineJoin.ROUND);
         g.setStroke(curve.getColor());
 
-        g.beginPath();
-        g.moveTo(start.getX(), start.getY());
-        g.quadraticCurveTo(control.getX(), control.getY(), end.getX(), end.getY());
-        g.stroke();
+        g.strokePolyline(polyline.getXs(), polyline.getYs(), polyline.size());
+
+        g.restore();
+    }
+
+    /**
+     * The tolerance of the flattener depends on the zoom. It is rounded down to a power of two
+     * so the cached polylines are only thrown away when the zoom changes by a factor of two
+     */
+    private CurveFlattener getFlattener(GraphicsContext g) {
+        double scale = Math.abs(g.getTransform().getMxx()) * Images.PIXELS_PER_FOOT;
+        double tolerance = FLATTEN_TOLERANCE_PIXELS / scale;
+        tolerance = Math.pow(2, Math.floor(Math.log(tolerance) / Math.log(2)));
+
+        if(flattener == null || flattener.getTolerance() != tolerance){
+            flattener = new CurveFlattener(tolerance);
+        }
+
+        return flattener;
     }
 
     public AnchorPane wrap(){
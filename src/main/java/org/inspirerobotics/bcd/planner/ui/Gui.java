@@ -11,8 +11,16 @@ import javafx.stage.Stage;
 import org.inspirerobotics.bcd.planner.Images;
 import org.inspirerobotics.bcd.planner.Launcher;
 import org.inspirerobotics.bcd.planner.curve.CurvesIO;
+import org.inspirerobotics.bcd.planner.curve.Path;
 import org.inspirerobotics.bcd.planner.curve.QBezierCurve;
 import org.inspirerobotics.bcd.planner.curve.Simulation;
+import org.inspirerobotics.bcd.planner.simulation.MonteCarloSimulation;
+import org.inspirerobotics.bcd.planner.trajectory.JavaSourceExporter;
+import org.inspirerobotics.bcd.planner.trajectory.RobotModel;
+import org.inspirerobotics.bcd.planner.trajectory.Trajectory;
+import org.inspirerobotics.bcd.planner.trajectory.TrajectoryExporter;
+import org.inspirerobotics.bcd.planner.trajectory.TrajectoryFormat;
+import org.inspirerobotics.bcd.planner.trajectory.TrajectoryGenerator;
 
 import java.io.File;
 import java.io.PrintWriter;
@@ -35,11 +43,17 @@ public class Gui {
     private final Simulation simulation;
 
     private ObservableList<QBezierCurve> curves;
+    private Path path;
     private File currentFile;
 
+    private final TrajectoryGenerator trajectoryGenerator = new TrajectoryGenerator(RobotModel.DEFAULT);
+    private Trajectory trajectory;
+    private long[] trajectoryVersions = new long[0];
+
     public Gui(Stage stage) {
         this.stage = stage;
         this.curves = FXCollections.observableArrayList();
+        this.path = new Path(curves);
         this.simulation = new Simulation(this);
         this.scene = new MainScene(this);
 
@@ -48,8 +62,6 @@ public class Gui {
 
         this.stage.setScene(scene.getScene());
         this.stage.show();
-
-        GuiUtils.createTimer(simulation::tick).start();
     }
 
     private void initStageSettings(Stage stage) {
@@ -63,7 +75,7 @@ public class Gui {
     }
 
     public void stop() {
-
+        simulation.stop();
     }
 
     public void save(File file) {
@@ -116,6 +128,53 @@ public class Gui {
         new Thread(() -> CurvesIO.open(file, this)).start();
     }
 
+    public void exportTrajectory(File file, TrajectoryFormat.Precision precision) {
+        if(file == null)
+            return;
+
+        Trajectory trajectory = getTrajectory();
+        new Thread(() -> TrajectoryExporter.export(file, trajectory, precision)).start();
+    }
+
+    public void exportJavaSource(File file, String packageName) {
+        if(file == null)
+            return;
+
+        var clonedCurves = curves.stream().map(QBezierCurve::copy).collect(Collectors.toList());
+        RobotModel model = getRobotModel();
+
+        new Thread(() -> JavaSourceExporter.export(file, packageName, clonedCurves, model)).start();
+    }
+
+    /**
+     * Runs a {@link MonteCarloSimulation} of the curves on a separate thread and shows the results
+     */
+    public void runMonteCarlo() {
+        var clonedCurves = curves.stream().map(QBezierCurve::copy).collect(Collectors.toList());
+        MonteCarloSimulation monteCarlo = new MonteCarloSimulation(getRobotModel());
+        monteCarlo.setFollowerType(simulation.getFollowerType());
+
+        new Thread(() -> {
+            try {
+                MonteCarloSimulation.Result result = monteCarlo.run(clonedCurves);
+                Platform.runLater(() -> showMonteCarloResult(result));
+            } catch(RuntimeException e) {
+                e.printStackTrace();
+                showError("Failed to run the Monte Carlo simulation!", e);
+            }
+        }).start();
+    }
+
+    private void showMonteCarloResult(MonteCarloSimulation.Result result) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Monte Carlo Simulation");
+        alert.setHeaderText("Monte Carlo Simulation");
+        alert.setContentText(result.toString());
+        alert.getDialogPane().setMinWidth(550);
+
+        alert.show();
+    }
+
     public static void showError(String title, Exception e){
         showError(title, e, () -> {});
     }
@@ -169,6 +228,42 @@ public class Gui {
         return curves;
     }
 
+    /**
+     * @return the curves as one continuous path, which stays up to date as the curves are edited
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the trajectory of the robot along the curves. It is generated again
+     * if any of the curves have changed since the last call
+     */
+    public Trajectory getTrajectory() {
+        if(trajectory == null || !isTrajectoryCurrent()){
+            trajectory = trajectoryGenerator.generate(path);
+            trajectoryVersions = curves.stream().mapToLong(QBezierCurve::getVersion).toArray();
+        }
+
+        return trajectory;
+    }
+
+    private boolean isTrajectoryCurrent() {
+        if(trajectoryVersions.length != curves.size())
+            return false;
+
+        for(int i = 0; i < trajectoryVersions.length; i++){
+            if(trajectoryVersions[i] != curves.get(i).getVersion())
+                return false;
+        }
+
+        return true;
+    }
+
+    public RobotModel getRobotModel() {
+        return trajectoryGenerator.getModel();
+    }
+
     public File getCurrentFile() {
         return currentFile;
     }
@@ -13,6 +13,9 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import org.inspirerobotics.bcd.planner.curve.QBezierCurve;
+import org.inspirerobotics.bcd.planner.simulation.FollowerType;
+import org.inspirerobotics.bcd.planner.trajectory.JavaSourceExporter;
+import org.inspirerobotics.bcd.planner.trajectory.TrajectoryFormat;
 
 /**
  * Contains all of the gui components for the planning scene
@@ -80,8 +83,12 @@ public class MainScene {
         vbox.setStyle("-fx-background-color:gray");
 
         AnchorPane anchorPane = new FieldPane(gui).wrap();
+        TimelineBar timelineBar = new TimelineBar(gui);
 
-        splitPane.getItems().add(anchorPane);
+        VBox.setVgrow(anchorPane, Priority.ALWAYS);
+        VBox fieldBox = new VBox(anchorPane, timelineBar);
+
+        splitPane.getItems().add(fieldBox);
         splitPane.getItems().add(vbox);
         return splitPane;
     }
@@ -123,7 +130,13 @@ public class MainScene {
         MenuItem saveAs = new MenuItem("Save As (Ctrl-Shift-S)");
         saveAs.setOnAction(this::saveAs);
 
-        menu.getItems().addAll(new_, open, save, saveAs);
+        MenuItem exportTrajectory = new MenuItem("Export Trajectory");
+        exportTrajectory.setOnAction(this::exportTrajectory);
+
+        MenuItem exportJavaSource = new MenuItem("Export Java Source");
+        exportJavaSource.setOnAction(this::exportJavaSource);
+
+        menu.getItems().addAll(new_, open, save, saveAs, new SeparatorMenuItem(), exportTrajectory, exportJavaSource);
 
         return menu;
     }
@@ -159,6 +172,54 @@ public class MainScene {
         gui.save(fileChooser.showSaveDialog(gui.getStage()));
     }
 
+    /**
+     * Exports the trajectory as a binary file, after asking for the precision of the values
+     */
+    private void exportTrajectory(ActionEvent actionEvent) {
+        var precisionDialog = new ChoiceDialog<>(TrajectoryFormat.Precision.FLOAT32,
+                TrajectoryFormat.Precision.values());
+        precisionDialog.setTitle("BCD: Export Trajectory");
+        precisionDialog.setHeaderText("Precision of the values (float32 is half the size)");
+
+        var precision = precisionDialog.showAndWait();
+
+        if(precision.isEmpty())
+            return;
+
+        var extensionFilter = new FileChooser.ExtensionFilter("BCD Trajectory", "*." + TrajectoryFormat.EXTENSION);
+        FileChooser fileChooser = new FileChooser();
+
+        fileChooser.setTitle("BCD: Export Trajectory");
+        fileChooser.getExtensionFilters().add(extensionFilter);
+        fileChooser.setInitialFileName("trajectory." + TrajectoryFormat.EXTENSION);
+
+        gui.exportTrajectory(fileChooser.showSaveDialog(gui.getStage()), precision.get());
+    }
+
+    /**
+     * Exports the curves and trajectory as a Java class of lookup tables for the robot code.
+     * The class is named after the file
+     */
+    private void exportJavaSource(ActionEvent actionEvent) {
+        TextInputDialog packageDialog = new TextInputDialog("frc.robot.paths");
+        packageDialog.setTitle("BCD: Export Java Source");
+        packageDialog.setHeaderText("Package of the generated class (leave empty for none)");
+
+        var packageName = packageDialog.showAndWait();
+
+        if(packageName.isEmpty())
+            return;
+
+        var extensionFilter = new FileChooser.ExtensionFilter("Java Source", "*." + JavaSourceExporter.EXTENSION);
+        FileChooser fileChooser = new FileChooser();
+
+        fileChooser.setTitle("BCD: Export Java Source");
+        fileChooser.getExtensionFilters().add(extensionFilter);
+        fileChooser.setInitialFileName("AutoPath." + JavaSourceExporter.EXTENSION);
+
+        gui.exportJavaSource(fileChooser.showSaveDialog(gui.getStage()), packageName.get().trim());
+    }
+
     private ToolBar createButtonBar() {
         ToolBar bar = new ToolBar();
         bar.setPadding(new Insets(5));
@@ -172,10 +233,19 @@ public class MainScene {
         Button startSimulation = new Button("Start Simulation");
         startSimulation.setOnAction(this::startSimulation);
 
+        ChoiceBox<FollowerType> follower = new ChoiceBox<>();
+        follower.getItems().addAll(FollowerType.values());
+        follower.setValue(gui.getSimulation().getFollowerType());
+        follower.setTooltip(new Tooltip("How the simulated robot follows the curves"));
+        follower.setOnAction(event -> gui.getSimulation().setFollowerType(follower.getValue()));
+
         Button findArc = new Button("Find Arc");
         findArc.setOnAction(this::findArc);
 
-        bar.getItems().addAll(addCurve, removeCurve, startSimulation, findArc);
+        Button monteCarlo = new Button("Monte Carlo");
+        monteCarlo.setOnAction(event -> gui.runMonteCarlo());
+
+        bar.getItems().addAll(addCurve, removeCurve, startSimulation, follower, findArc, monteCarlo);
 
         return bar;
     }
@@ -0,0 +1,147 @@
+package org.inspirerobotics.bcd.planner.ui;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.util.StringConverter;
+import org.inspirerobotics.bcd.planner.curve.Simulation;
+import org.inspirerobotics.bcd.planner.simulation.TelemetryPlayer;
+
+/**
+ * The bar under the field for replaying the recording of the last simulation. Moving the slider jumps
+ * to that moment of the run, and the play button replays the run at the selected speed.
+ */
+public class TimelineBar extends HBox {
+
+    private static final Double[] SPEEDS = {-1.0, .1, .25, .5, 1.0, 2.0, 4.0};
+
+    private final Simulation simulation;
+
+    private final Button playButton = new Button("Replay");
+    private final Button liveButton = new Button("Live");
+    private final Slider slider = new Slider(0, 1, 0);
+    private final ChoiceBox<Double> speeds = new ChoiceBox<>();
+    private final Label timeLabel = new Label();
+
+    /**
+     * When this is true, the slider is being moved to match the player, so
+     * moving it should not seek
+     */
+    private boolean updating = false;
+
+    public TimelineBar(Gui gui) {
+        this.simulation = gui.getSimulation();
+
+        playButton.setOnAction(event -> togglePlaying());
+        liveButton.setOnAction(event -> showLive());
+
+        speeds.getItems().addAll(SPEEDS);
+        speeds.setConverter(new SpeedStringConverter());
+        speeds.setValue(1.0);
+        speeds.setOnAction(event -> updateSpeed());
+
+        slider.valueProperty().addListener((observable, oldValue, value) -> onSliderMoved(value.doubleValue()));
+        HBox.setHgrow(slider, Priority.ALWAYS);
+
+        timeLabel.setMinWidth(110);
+
+        this.setPadding(new Insets(5));
+        this.setSpacing(10);
+        this.getChildren().addAll(playButton, liveButton, slider, speeds, timeLabel);
+
+        GuiUtils.createTimer(now -> update()).start();
+    }
+
+    private void togglePlaying() {
+        TelemetryPlayer player = simulation.getPlayer();
+        long now = System.nanoTime();
+
+        if(player == null)
+            return;
+
+        if(player.isPlaying() && simulation.isReplaying()){
+            player.pause(now);
+            return;
+        }
+
+        if(player.getTime(now) >= player.getEndTime() && player.getSpeed() > 0){
+            player.seek(player.getStartTime(), now);
+        }
+
+        simulation.setReplaying(true);
+        player.play(now);
+    }
+
+    private void showLive() {
+        TelemetryPlayer player = simulation.getPlayer();
+
+        if(player != null){
+            player.pause(System.nanoTime());
+        }
+
+        simulation.setReplaying(false);
+    }
+
+    private void updateSpeed() {
+        TelemetryPlayer player = simulation.getPlayer();
+
+        if(player != null && speeds.getValue() != null){
+            player.setSpeed(speeds.getValue(), System.nanoTime());
+        }
+    }
+
+    private void onSliderMoved(double time) {
+        TelemetryPlayer player = simulation.getPlayer();
+
+        if(updating || player == null)
+            return;
+
+        simulation.setReplaying(true);
+        player.seek(time, System.nanoTime());
+    }
+
+    /**
+     * Moves the slider to match the player, once per frame
+     */
+    private void update() {
+        TelemetryPlayer player = simulation.getPlayer();
+        long now = System.nanoTime();
+
+        if(player == null)
+            return;
+
+        double start = player.getStartTime();
+        double end = player.getEndTime();
+        double time = simulation.isReplaying() ? player.getTime(now) : end;
+
+        updating = true;
+        slider.setMin(start);
+        slider.setMax(Math.max(start, end));
+
+        if(!slider.isValueChanging()){
+            slider.setValue(time);
+        }
+
+        updating = false;
+
+        playButton.setText(player.isPlaying() && simulation.isReplaying() ? "Pause" : "Replay");
+        timeLabel.setText(String.format("%.2fs / %.2fs", time, end));
+    }
+
+    private static class SpeedStringConverter extends StringConverter<Double>{
+
+        @Override
+        public String toString(Double speed) {
+            return speed == null ? "" : String.format("%sx", speed);
+        }
+
+        @Override
+        public Double fromString(String string) {
+            return Double.parseDouble(string.replace("x", ""));
+        }
+    }
+}